@@ -0,0 +1,306 @@
+package org.loisdb.flush;
+
+import org.loisdb.memtable.MemTable;
+import org.loisdb.memtable.MemTableManager;
+import org.loisdb.memtable.ValueType;
+import org.loisdb.sst.Table;
+import org.loisdb.sst.TableBuilder;
+import org.loisdb.sst.TableOptions;
+import org.loisdb.util.Slice;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Flusher turns immutable memtables into table files in the background. Every memtable turned immutable by the
+ * manager is queued, the queue holds at most maxImmutables of the manager, and worker threads flush them:
+ * <ol>
+ * <li>wait until the writers which entered the memtable before it was sealed have left, the flush is only queued
+ * by the last of them, see {@link MemTable#whenImmutable(Runnable)},</li>
+ * <li>write its entries in key order to a temporary file and fsync it,</li>
+ * <li>rename the temporary file to the table file, so a table file is either complete or absent,</li>
+ * <li>install the table, and only then drop the memtable, so a reader always finds every entry.</li>
+ * </ol>
+ * Foreground writers never wait for a flush, they only stall in the manager when the active memtable is full and
+ * maxImmutables memtables are still queued. A failed flush is not retried, its error is handed to the manager, which
+ * wakes stalled writers and fails every write from then on.
+ * A flush holds a reference of its memtable, so closing the manager during a flush does not release the memtable
+ * under it.
+ * Table files are named after the id of their memtable. The directory should be empty, tables left by an earlier
+ * run are not loaded yet.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class Flusher implements AutoCloseable {
+
+    /**
+     * suffix of table files.
+     */
+    public static final String TABLE_SUFFIX = ".sst";
+
+    /**
+     * suffix of table files being written.
+     */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * size of the buffer in front of a table file.
+     */
+    private static final int WRITE_BUFFER_SIZE = 64 << 10;
+
+    private final MemTableManager manager;
+
+    private final File dir;
+
+    private final TableOptions options;
+
+    private final ThreadPoolExecutor workers;
+
+    /**
+     * installed tables by id of their memtable, the newest first.
+     */
+    private final ConcurrentNavigableMap<Long, Table> tables;
+
+    /**
+     * num of flushes scheduled and not finished yet, guarded by pendingLock.
+     */
+    private int pending;
+
+    /**
+     * lock and condition waiters for flushes block on.
+     */
+    private final ReentrantLock pendingLock;
+
+    private final Condition flushed;
+
+    /**
+     * the first error of a flush, the memtable of a failed flush stays immutable.
+     */
+    private volatile Throwable backgroundError;
+
+    /**
+     * Constructor of flusher writing tables with default options, it flushes every memtable turned immutable by
+     * manager from now on.
+     *
+     * @param manager manager of memtables
+     * @param dir     directory of table files
+     * @param threads num of worker threads
+     */
+    public Flusher(MemTableManager manager, File dir, int threads) {
+        this(manager, dir, threads, new TableOptions());
+    }
+
+    /**
+     * Constructor of flusher, it flushes every memtable turned immutable by manager from now on.
+     *
+     * @param manager manager of memtables
+     * @param dir     directory of table files
+     * @param threads num of worker threads
+     * @param options options of tables
+     */
+    public Flusher(MemTableManager manager, File dir, int threads, TableOptions options) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads " + threads);
+        }
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IllegalArgumentException("can not create directory " + dir);
+        }
+        this.manager = manager;
+        this.dir = dir;
+        this.options = options;
+        this.pendingLock = new ReentrantLock();
+        this.flushed = pendingLock.newCondition();
+        this.tables = new ConcurrentSkipListMap<>(Collections.reverseOrder());
+        AtomicInteger threadId = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(manager.maxImmutables()), r -> {
+                    Thread thread = new Thread(r, "loisdb-flush-" + threadId.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        manager.setImmutableListener(this::schedule);
+    }
+
+    /**
+     * Get the latest value of key, looking at the memtables first and then the tables from the newest.
+     *
+     * @param key key
+     * @return the value of key, null if key has no entry or is deleted
+     * @throws IOException if a table can not be read
+     */
+    public byte[] get(byte[] key) throws IOException {
+        Slice target = new Slice(key);
+        Slice value = new Slice();
+        // memtables must be read before tables: a memtable is dropped only after its table is installed.
+        ValueType type = manager.get(target, value);
+        if (type == null) {
+            for (Table table : tables.values()) {
+                if ((type = table.get(target, value)) != null) {
+                    break;
+                }
+            }
+        }
+        return type == ValueType.VALUE ? value.toBytes() : null;
+    }
+
+    /**
+     * Return the installed tables, the newest first.
+     *
+     * @return a snapshot of installed tables
+     */
+    public List<Table> tables() {
+        return new ArrayList<>(tables.values());
+    }
+
+    /**
+     * Return the first error of a flush, null if every flush succeeded.
+     *
+     * @return the first error of a flush
+     */
+    public Throwable backgroundError() {
+        return backgroundError;
+    }
+
+    /**
+     * Wait until every queued flush has finished.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void waitForFlushes() throws InterruptedException {
+        pendingLock.lock();
+        try {
+            while (pending > 0) {
+                flushed.await();
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * Stop taking immutable memtables, wait for queued flushes to finish and close the tables.
+     *
+     * @throws IOException if a table can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        manager.setImmutableListener(null);
+        workers.shutdown();
+        boolean interrupted = false;
+        for (; ; ) {
+            try {
+                if (workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        for (Table table : tables.values()) {
+            table.close();
+        }
+    }
+
+    /**
+     * Count a flush of mem as pending, and queue it once the writers of mem have left.
+     */
+    private void schedule(MemTable mem) {
+        pendingLock.lock();
+        try {
+            pending++;
+        } finally {
+            pendingLock.unlock();
+        }
+        mem.whenImmutable(() -> {
+            try {
+                workers.execute(() -> {
+                    try {
+                        flush(mem);
+                    } finally {
+                        finishPending();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the flusher is closed, mem stays immutable in the manager.
+                finishPending();
+            }
+        });
+    }
+
+    private void finishPending() {
+        pendingLock.lock();
+        try {
+            if (--pending == 0) {
+                flushed.signalAll();
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private void flush(MemTable mem) {
+        if (!mem.tryRef()) {
+            // the manager is closed and mem is released.
+            return;
+        }
+        File temp = new File(dir, mem.id() + TEMP_SUFFIX);
+        File target = new File(dir, mem.id() + TABLE_SUFFIX);
+        try {
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                TableBuilder builder = new TableBuilder(new BufferedOutputStream(out, WRITE_BUFFER_SIZE), options,
+                        mem.size());
+                MemTable.Cursor cursor = mem.cursor();
+                for (cursor.seekToFirst(); cursor.valid(); cursor.next()) {
+                    builder.add(cursor.key(), cursor.type(), cursor.value());
+                }
+                builder.finish();
+                out.getFD().sync();
+            }
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            syncDir();
+            tables.put(mem.id(), Table.open(target, options));
+            manager.removeImmutable(mem);
+        } catch (Throwable e) {
+            if (backgroundError == null) {
+                backgroundError = e;
+            }
+            temp.delete();
+            manager.setBackgroundError(e);
+        } finally {
+            mem.unref();
+        }
+    }
+
+    /**
+     * Make the rename durable.
+     */
+    private void syncDir() {
+        try (FileChannel channel = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // some platforms can not open a directory, the rename is still atomic there.
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package org.loisdb.memtable;
+
+import org.loisdb.util.Arena;
+import org.loisdb.util.ArenaSkipList;
+import org.loisdb.util.BytewiseComparator;
+import org.loisdb.util.ConcurrentBloom;
+import org.loisdb.util.KeyComparator;
+import org.loisdb.util.PrefixExtractor;
+import org.loisdb.util.SeekableIterator;
+import org.loisdb.util.Slice;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * MemTable keeps the latest writes in memory, it is an arena skip list plus the arena holding its nodes. Every value
+ * in the skip list starts with the code of its {@link ValueType}, so a deletion is kept as an entry of its own.
+ * A memtable is active while writers add to it, once it is sealed no new writer may enter, it becomes immutable as
+ * soon as the writers which entered before the seal have left. Readers never lock, they may read a memtable in any
+ * state. A listener registered by {@link #whenImmutable(Runnable)} is called once the memtable becomes immutable, by
+ * the thread which made it so, so nobody has to wait for the writers to leave.
+ * A memtable may keep a concurrent bloom filter of its keys, a lookup of a key ruled out by the filter skips the
+ * search of the skip list. A key is inserted into the filter before its entry is linked, so a reader which may see
+ * the entry also sees the key in the filter. Given a prefix extractor, the filter indexes the prefixes of keys too,
+ * so a scan of a prefix ruled out by the filter skips this memtable.
+ * The arena is released when the last reference is dropped, the creator owns the first reference, a reader which
+ * may race with the release takes a reference of its own with {@link #tryRef()}.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class MemTable {
+
+    /**
+     * bit of writers set once the memtable is sealed.
+     */
+    private static final int SEALED = 1 << 30;
+
+    /**
+     * marks the immutable listener as called.
+     */
+    private static final Runnable FIRED = () -> {
+    };
+
+    /**
+     * id of this memtable, a memtable created later has a larger id.
+     */
+    private final long id;
+
+    private final Arena arena;
+
+    private final ArenaSkipList table;
+
+    /**
+     * filter of keys, null if this memtable has no filter.
+     */
+    private final ConcurrentBloom filter;
+
+    /**
+     * extractor of prefixes indexed by filter, null if only whole keys are indexed.
+     */
+    private final PrefixExtractor prefixExtractor;
+
+    /**
+     * num of writers inside add, with the SEALED bit.
+     */
+    private final AtomicInteger writers;
+
+    /**
+     * num of references, the arena is closed when it drops to 0.
+     */
+    private final AtomicInteger refs;
+
+    /**
+     * listener called once this memtable becomes immutable, FIRED once it has been called or is not needed.
+     */
+    private final AtomicReference<Runnable> immutableListener;
+
+    /**
+     * Constructor of memtable ordered by unsigned lexicographic order.
+     *
+     * @param arena arena holding the nodes, it is owned by this memtable from now on
+     */
+    public MemTable(Arena arena) {
+        this(0, arena, BytewiseComparator.INSTANCE);
+    }
+
+    /**
+     * Constructor of memtable.
+     *
+     * @param id         id of this memtable, a memtable created later has a larger id
+     * @param arena      arena holding the nodes, it is owned by this memtable from now on
+     * @param comparator order of keys
+     */
+    public MemTable(long id, Arena arena, KeyComparator comparator) {
+        this(id, arena, comparator, null);
+    }
+
+    /**
+     * Constructor of memtable with a filter of its keys.
+     *
+     * @param id         id of this memtable, a memtable created later has a larger id
+     * @param arena      arena holding the nodes, it is owned by this memtable from now on
+     * @param comparator order of keys
+     * @param filter     empty filter of keys, null if this memtable has no filter
+     */
+    public MemTable(long id, Arena arena, KeyComparator comparator, ConcurrentBloom filter) {
+        this(id, arena, comparator, filter, null);
+    }
+
+    /**
+     * Constructor of memtable with a filter of its keys and their prefixes.
+     *
+     * @param id              id of this memtable, a memtable created later has a larger id
+     * @param arena           arena holding the nodes, it is owned by this memtable from now on
+     * @param comparator      order of keys
+     * @param filter          empty filter of keys, null if this memtable has no filter
+     * @param prefixExtractor extractor of prefixes indexed by filter, null if only whole keys are indexed
+     */
+    public MemTable(long id, Arena arena, KeyComparator comparator, ConcurrentBloom filter,
+                    PrefixExtractor prefixExtractor) {
+        this.id = id;
+        this.arena = arena;
+        this.table = new ArenaSkipList(arena, comparator);
+        this.filter = filter;
+        this.prefixExtractor = filter == null ? null : prefixExtractor;
+        this.writers = new AtomicInteger();
+        this.refs = new AtomicInteger(1);
+        this.immutableListener = new AtomicReference<>();
+    }
+
+    /**
+     * Return id of this memtable.
+     *
+     * @return id of this memtable
+     */
+    public long id() {
+        return id;
+    }
+
+    /**
+     * Return num of bytes used by this memtable.
+     *
+     * @return num of bytes used by this memtable
+     */
+    public int usage() {
+        return arena.usage();
+    }
+
+    /**
+     * Return num of entries, a deletion counts as an entry.
+     *
+     * @return num of entries
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Add an entry, an existing entry of key is replaced. Only a writer which has entered by
+     * {@link #beginWrite()} may add.
+     *
+     * @param key   key
+     * @param type  kind of entry
+     * @param value value, ignored for a deletion
+     */
+    public void add(byte[] key, ValueType type, byte[] value) {
+        int length = type == ValueType.DELETION ? 0 : value.length;
+        byte[] encoded = new byte[length + 1];
+        encoded[0] = type.code();
+        if (length > 0) {
+            System.arraycopy(value, 0, encoded, 1, length);
+        }
+        if (filter != null) {
+            filter.insert(key);
+            if (prefixExtractor != null) {
+                Slice k = new Slice(key);
+                if (prefixExtractor.inDomain(k)) {
+                    filter.insertHash(PrefixExtractor.hashPrefix(prefixExtractor.prefix(k, new Slice())));
+                }
+            }
+        }
+        table.put(key, encoded);
+    }
+
+    /**
+     * Look up the entry of key.
+     *
+     * @param key   key
+     * @param value set to the value if the entry is a VALUE, its bytes are valid as long as this memtable
+     * @return kind of the entry, null if there is no entry of key
+     */
+    public ValueType get(Slice key, Slice value) {
+        if (!mayContainKey(key) || !table.get(key, value)) {
+            return null;
+        }
+        ValueType type = ValueType.fromCode(value.getByte(0));
+        value.removePrefix(1);
+        return type;
+    }
+
+    /**
+     * Check the filter of this memtable for key.
+     *
+     * @param key key
+     * @return false if this memtable has no entry of key, true if it may have one or this memtable has no filter
+     */
+    public boolean mayContainKey(Slice key) {
+        return filter == null || filter.mayContainsKey(key);
+    }
+
+    /**
+     * Check the filter of this memtable for a prefix of its prefix extractor.
+     *
+     * @param prefix prefix of keys
+     * @return false if this memtable has no key of prefix, true if it may have one or the filter does not index
+     * prefixes
+     */
+    public boolean mayContainPrefix(Slice prefix) {
+        return prefixExtractor == null || filter.mayContainsHash(PrefixExtractor.hashPrefix(prefix));
+    }
+
+    /**
+     * Enter as a writer.
+     *
+     * @return false if this memtable has been sealed, the writer must go to the new active memtable
+     */
+    public boolean beginWrite() {
+        for (; ; ) {
+            int cur = writers.get();
+            if ((cur & SEALED) != 0) {
+                return false;
+            }
+            if (writers.compareAndSet(cur, cur + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Leave as a writer.
+     */
+    public void endWrite() {
+        if (writers.decrementAndGet() == SEALED) {
+            fireImmutable();
+        }
+    }
+
+    /**
+     * Seal this memtable, no writer may enter any more.
+     *
+     * @return true if this call sealed it, false if it was sealed already
+     */
+    public boolean seal() {
+        for (; ; ) {
+            int cur = writers.get();
+            if ((cur & SEALED) != 0) {
+                return false;
+            }
+            if (writers.compareAndSet(cur, cur | SEALED)) {
+                if (cur == 0) {
+                    fireImmutable();
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Check if this memtable is sealed and all of its writers have left, from then on it never changes.
+     *
+     * @return if this memtable is immutable
+     */
+    public boolean isImmutable() {
+        return writers.get() == SEALED;
+    }
+
+    /**
+     * Call listener once this memtable is immutable: at once if it is already, otherwise by the writer which leaves
+     * last after the seal, so listener must not block. Only one listener may be registered.
+     *
+     * @param listener listener called once this memtable is immutable
+     */
+    public void whenImmutable(Runnable listener) {
+        if (!immutableListener.compareAndSet(null, listener)) {
+            if (immutableListener.get() != FIRED) {
+                throw new IllegalStateException("immutable listener has been registered!");
+            }
+            listener.run();
+            return;
+        }
+        // the memtable may have become immutable before the listener was registered.
+        if (isImmutable() && immutableListener.compareAndSet(listener, FIRED)) {
+            listener.run();
+        }
+    }
+
+    private void fireImmutable() {
+        Runnable listener = immutableListener.getAndSet(FIRED);
+        if (listener != null && listener != FIRED) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Take a reference unless this memtable has been released.
+     *
+     * @return false if this memtable has been released
+     */
+    public boolean tryRef() {
+        for (; ; ) {
+            int cur = refs.get();
+            if (cur == 0) {
+                return false;
+            }
+            if (refs.compareAndSet(cur, cur + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drop a reference, the arena is closed when the last one is dropped.
+     */
+    public void unref() {
+        int cur = refs.decrementAndGet();
+        if (cur == 0) {
+            arena.close();
+        } else if (cur < 0) {
+            throw new IllegalStateException("memtable has been released!");
+        }
+    }
+
+    /**
+     * Return the skip list of this memtable, values in it start with the code of their kind.
+     *
+     * @return the skip list of this memtable
+     */
+    public ArenaSkipList getTable() {
+        return table;
+    }
+
+    /**
+     * Create a cursor over the entries of this memtable in key order.
+     *
+     * @return a new cursor, not positioned at any entry
+     */
+    public Cursor cursor() {
+        return new Cursor(table.cursor());
+    }
+
+    /**
+     * A cursor over the entries of memtable in key order, value of a cursor does not include the code of its kind.
+     */
+    public static final class Cursor implements SeekableIterator {
+
+        private final ArenaSkipList.Cursor cursor;
+
+        Cursor(ArenaSkipList.Cursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean valid() {
+            return cursor.valid();
+        }
+
+        @Override
+        public void seekToFirst() {
+            cursor.seekToFirst();
+        }
+
+        @Override
+        public void seekToLast() {
+            cursor.seekToLast();
+        }
+
+        @Override
+        public void seek(Slice target) {
+            cursor.seek(target);
+        }
+
+        @Override
+        public void seekForPrev(Slice target) {
+            cursor.seekForPrev(target);
+        }
+
+        @Override
+        public void next() {
+            cursor.next();
+        }
+
+        @Override
+        public void prev() {
+            cursor.prev();
+        }
+
+        @Override
+        public Slice key() {
+            return cursor.key();
+        }
+
+        /**
+         * Return the kind of the entry the cursor is positioned at.
+         *
+         * @return kind of current entry
+         */
+        public ValueType type() {
+            return ValueType.fromCode(cursor.value().getByte(0));
+        }
+
+        @Override
+        public Slice value() {
+            return cursor.value().removePrefix(1);
+        }
+    }
+}
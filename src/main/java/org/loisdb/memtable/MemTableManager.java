@@ -0,0 +1,429 @@
+package org.loisdb.memtable;
+
+import org.loisdb.util.Arena;
+import org.loisdb.util.BytewiseComparator;
+import org.loisdb.util.ConcurrentBloom;
+import org.loisdb.util.PrefixExtractor;
+import org.loisdb.util.Slice;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * MemTableManager owns the active memtable, which takes all writes, and the immutable memtables waiting to be
+ * flushed. When the arena of the active memtable has handed out writeBufferSize bytes, the writer which notices it
+ * swaps in a fresh memtable and seals the full one.
+ * The swap never blocks a writer: the full memtable is published as immutable before the fresh one becomes active,
+ * so a reader always finds every entry, writers which entered the full memtable before it was sealed finish their
+ * writes there, and writers arriving during the swap keep writing into the full memtable until the fresh one is
+ * installed. A memtable may therefore grow a little past writeBufferSize.
+ * At most maxImmutables memtables wait for flush. Like MakeRoomForWrite of LevelDB, a writer only stalls when the
+ * active memtable is full and no more immutable memtable is allowed, until a flushed memtable is removed.
+ * Like bg_error_ of LevelDB, once a background flush fails the manager takes no more writes: stalled writers are
+ * woken and every write fails with the background error, so writers never wait for a flush which will not happen.
+ * Every memtable keeps a bloom filter of its keys of filterSizeRatio times writeBufferSize bytes, so a lookup of an
+ * absent key skips the skip list of most memtables. Given a prefix extractor, the filters index the prefixes of keys
+ * too, see {@link MemTable#mayContainPrefix(Slice)}.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class MemTableManager implements AutoCloseable {
+
+    /**
+     * Default size of the filter of a memtable relative to writeBufferSize.
+     */
+    public static final double DEFAULT_FILTER_SIZE_RATIO = 0.02;
+
+    /**
+     * num of hash function of the filter of a memtable.
+     */
+    private static final int FILTER_NUM_HASH = 6;
+
+    /**
+     * num of bytes a memtable may use before it is turned immutable.
+     */
+    private final int writeBufferSize;
+
+    /**
+     * if arenas are allocated outside the heap.
+     */
+    private final boolean offHeap;
+
+    /**
+     * max num of immutable memtables, writers stall when the active memtable is full and this many are waiting.
+     */
+    private final int maxImmutables;
+
+    /**
+     * size of the filter of a memtable relative to writeBufferSize, 0 if memtables have no filter.
+     */
+    private final double filterSizeRatio;
+
+    /**
+     * extractor of prefixes indexed by the filters of memtables, null if only whole keys are indexed.
+     */
+    private final PrefixExtractor prefixExtractor;
+
+    /**
+     * memtable taking writes.
+     */
+    private volatile MemTable active;
+
+    /**
+     * immutable memtables, the newest first.
+     */
+    private final Deque<MemTable> immutables;
+
+    /**
+     * set while a writer is swapping the active memtable.
+     */
+    private final AtomicBoolean swapping;
+
+    /**
+     * id of the latest memtable, only changed by the writer swapping.
+     */
+    private long lastId;
+
+    /**
+     * called with every memtable turned immutable.
+     */
+    private volatile Consumer<MemTable> immutableListener;
+
+    /**
+     * the first error of a background flush, null if there is none.
+     */
+    private volatile Throwable backgroundError;
+
+    /**
+     * lock and condition writers stall on.
+     */
+    private final ReentrantLock roomLock;
+
+    private final Condition roomAvailable;
+
+    /**
+     * Constructor of memtable manager with arenas on the heap.
+     *
+     * @param writeBufferSize num of bytes a memtable may use before it is turned immutable
+     */
+    public MemTableManager(int writeBufferSize) {
+        this(writeBufferSize, false);
+    }
+
+    /**
+     * Constructor of memtable manager.
+     *
+     * @param writeBufferSize num of bytes a memtable may use before it is turned immutable
+     * @param offHeap         if arenas are allocated outside the heap
+     */
+    public MemTableManager(int writeBufferSize, boolean offHeap) {
+        this(writeBufferSize, offHeap, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor of memtable manager.
+     *
+     * @param writeBufferSize num of bytes a memtable may use before it is turned immutable
+     * @param offHeap         if arenas are allocated outside the heap
+     * @param maxImmutables   max num of immutable memtables waiting for flush
+     */
+    public MemTableManager(int writeBufferSize, boolean offHeap, int maxImmutables) {
+        this(writeBufferSize, offHeap, maxImmutables, DEFAULT_FILTER_SIZE_RATIO);
+    }
+
+    /**
+     * Constructor of memtable manager.
+     *
+     * @param writeBufferSize num of bytes a memtable may use before it is turned immutable
+     * @param offHeap         if arenas are allocated outside the heap
+     * @param maxImmutables   max num of immutable memtables waiting for flush
+     * @param filterSizeRatio size of the filter of a memtable relative to writeBufferSize, 0 for no filter
+     */
+    public MemTableManager(int writeBufferSize, boolean offHeap, int maxImmutables, double filterSizeRatio) {
+        this(writeBufferSize, offHeap, maxImmutables, filterSizeRatio, null);
+    }
+
+    /**
+     * Constructor of memtable manager.
+     *
+     * @param writeBufferSize num of bytes a memtable may use before it is turned immutable
+     * @param offHeap         if arenas are allocated outside the heap
+     * @param maxImmutables   max num of immutable memtables waiting for flush
+     * @param filterSizeRatio size of the filter of a memtable relative to writeBufferSize, 0 for no filter
+     * @param prefixExtractor extractor of prefixes indexed by the filters of memtables, null if only whole keys are
+     *                        indexed
+     */
+    public MemTableManager(int writeBufferSize, boolean offHeap, int maxImmutables, double filterSizeRatio,
+                           PrefixExtractor prefixExtractor) {
+        if (writeBufferSize <= 0 || maxImmutables <= 0 || filterSizeRatio < 0 || filterSizeRatio > 1) {
+            throw new IllegalArgumentException("writeBufferSize " + writeBufferSize + ", maxImmutables "
+                    + maxImmutables + ", filterSizeRatio " + filterSizeRatio);
+        }
+        this.writeBufferSize = writeBufferSize;
+        this.offHeap = offHeap;
+        this.maxImmutables = maxImmutables;
+        this.filterSizeRatio = filterSizeRatio;
+        this.prefixExtractor = prefixExtractor;
+        this.immutables = new ConcurrentLinkedDeque<>();
+        this.swapping = new AtomicBoolean();
+        this.roomLock = new ReentrantLock();
+        this.roomAvailable = roomLock.newCondition();
+        this.active = newMemTable();
+    }
+
+    /**
+     * Set the listener called with every memtable turned immutable, usually it schedules a flush. It is called by
+     * the writer which swapped the memtable, so it must not block.
+     *
+     * @param listener listener of immutable memtables
+     */
+    public void setImmutableListener(Consumer<MemTable> listener) {
+        this.immutableListener = listener;
+    }
+
+    /**
+     * Return max num of immutable memtables waiting for flush.
+     *
+     * @return max num of immutable memtables
+     */
+    public int maxImmutables() {
+        return maxImmutables;
+    }
+
+    /**
+     * Record the error of a background flush, the first error is kept. Writers stalled for room are woken, and
+     * every write from now on fails with it.
+     *
+     * @param error error of a background flush
+     */
+    public void setBackgroundError(Throwable error) {
+        if (error == null) {
+            throw new IllegalArgumentException("error is null!");
+        }
+        roomLock.lock();
+        try {
+            if (backgroundError == null) {
+                backgroundError = error;
+            }
+            roomAvailable.signalAll();
+        } finally {
+            roomLock.unlock();
+        }
+    }
+
+    /**
+     * Return the first error of a background flush.
+     *
+     * @return the first error of a background flush, null if there is none
+     */
+    public Throwable backgroundError() {
+        return backgroundError;
+    }
+
+    /**
+     * Put a key-value pair.
+     *
+     * @param key   key
+     * @param value value
+     * @throws IllegalStateException if a background flush has failed
+     */
+    public void put(byte[] key, byte[] value) {
+        write(key, ValueType.VALUE, value);
+    }
+
+    /**
+     * Delete a key.
+     *
+     * @param key key
+     * @throws IllegalStateException if a background flush has failed
+     */
+    public void delete(byte[] key) {
+        write(key, ValueType.DELETION, null);
+    }
+
+    /**
+     * Get the latest value of key, looking at the active memtable first and then the immutable ones from the newest.
+     *
+     * @param key key
+     * @return the value of key, null if key has no entry or is deleted
+     */
+    public byte[] get(byte[] key) {
+        Slice value = new Slice();
+        return get(new Slice(key), value) == ValueType.VALUE ? value.toBytes() : null;
+    }
+
+    /**
+     * Get the latest entry of key, looking at the active memtable first and then the immutable ones from the newest.
+     *
+     * @param key   key
+     * @param value set to a copy of the value if the entry is a VALUE, so it stays valid after the memtable is released
+     * @return kind of the entry, null if key has no entry in any memtable
+     */
+    public ValueType get(Slice key, Slice value) {
+        MemTable mem;
+        do {
+            mem = active;
+        } while (!mem.tryRef());
+        ValueType type = get(mem, key, value);
+        if (type != null) {
+            return type;
+        }
+        for (MemTable imm : immutables) {
+            if (imm.tryRef() && (type = get(imm, key, value)) != null) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Look up key in a referenced memtable and drop the reference.
+     */
+    private static ValueType get(MemTable mem, Slice key, Slice value) {
+        try {
+            ValueType type = mem.get(key, value);
+            if (type == ValueType.VALUE) {
+                value.set(value.toBytes());
+            }
+            return type;
+        } finally {
+            mem.unref();
+        }
+    }
+
+    /**
+     * Return the memtable taking writes.
+     *
+     * @return the active memtable
+     */
+    public MemTable active() {
+        return active;
+    }
+
+    /**
+     * Return the immutable memtables, the newest first. A memtable in the list may still have writers which entered
+     * before it was sealed, see {@link MemTable#isImmutable()}.
+     *
+     * @return a snapshot of immutable memtables
+     */
+    public List<MemTable> immutables() {
+        return new ArrayList<>(immutables);
+    }
+
+    /**
+     * Drop an immutable memtable once its entries have been persisted, its arena is released when no reader holds
+     * it any more.
+     *
+     * @param mem immutable memtable to be dropped
+     * @return false if mem is not an immutable memtable of this manager
+     */
+    public boolean removeImmutable(MemTable mem) {
+        if (!immutables.remove(mem)) {
+            return false;
+        }
+        mem.unref();
+        roomLock.lock();
+        try {
+            roomAvailable.signalAll();
+        } finally {
+            roomLock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Release all memtables.
+     */
+    @Override
+    public void close() {
+        MemTable mem;
+        while ((mem = immutables.pollFirst()) != null) {
+            mem.unref();
+        }
+        active.seal();
+        active.unref();
+    }
+
+    private void write(byte[] key, ValueType type, byte[] value) {
+        makeRoomForWrite();
+        MemTable mem;
+        do {
+            mem = active;
+        } while (!mem.beginWrite());
+        try {
+            mem.add(key, type, value);
+        } finally {
+            mem.endWrite();
+        }
+    }
+
+    /**
+     * Swap the active memtable if it is full, stall if it is full and maxImmutables memtables are waiting for flush.
+     * Fail if a background flush has failed.
+     */
+    private void makeRoomForWrite() {
+        checkBackgroundError();
+        MemTable mem = active;
+        while (mem.usage() >= writeBufferSize) {
+            if (immutables.size() < maxImmutables) {
+                swap(mem);
+                return;
+            }
+            roomLock.lock();
+            try {
+                while (backgroundError == null && active == mem && immutables.size() >= maxImmutables) {
+                    roomAvailable.awaitUninterruptibly();
+                }
+            } finally {
+                roomLock.unlock();
+            }
+            checkBackgroundError();
+            mem = active;
+        }
+    }
+
+    private void checkBackgroundError() {
+        Throwable error = backgroundError;
+        if (error != null) {
+            throw new IllegalStateException("background flush failed!", error);
+        }
+    }
+
+    /**
+     * Turn full into an immutable memtable and install a fresh active one, unless another writer is doing or has
+     * done it.
+     */
+    private void swap(MemTable full) {
+        if (active != full || !swapping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (active != full) {
+                return;
+            }
+            immutables.addFirst(full);
+            active = newMemTable();
+            full.seal();
+        } finally {
+            swapping.set(false);
+        }
+        Consumer<MemTable> listener = immutableListener;
+        if (listener != null) {
+            listener.accept(full);
+        }
+    }
+
+    private MemTable newMemTable() {
+        int filterBits = (int) (writeBufferSize * filterSizeRatio * 8);
+        ConcurrentBloom filter = filterBits > 0 ? new ConcurrentBloom(filterBits, FILTER_NUM_HASH) : null;
+        return new MemTable(++lastId, new Arena(writeBufferSize, true, offHeap), BytewiseComparator.INSTANCE, filter,
+                prefixExtractor);
+    }
+}
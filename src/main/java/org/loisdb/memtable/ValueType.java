@@ -0,0 +1,53 @@
+package org.loisdb.memtable;
+
+/**
+ * Kind of an entry written to loisDB. Every value stored in a memtable starts with the code of its kind, a deletion
+ * is an entry of its own which hides older values of the same key until they are compacted away.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public enum ValueType {
+
+    /**
+     * the key has been deleted, the entry has no value.
+     */
+    DELETION((byte) 0),
+
+    /**
+     * the key is mapped to the value of the entry.
+     */
+    VALUE((byte) 1);
+
+    private final byte code;
+
+    ValueType(byte code) {
+        this.code = code;
+    }
+
+    /**
+     * Return the code of this kind stored before the value.
+     *
+     * @return the code of this kind
+     */
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * Return the kind of a code.
+     *
+     * @param code code stored before the value
+     * @return the kind of code
+     */
+    public static ValueType fromCode(byte code) {
+        switch (code) {
+            case 0:
+                return DELETION;
+            case 1:
+                return VALUE;
+            default:
+                throw new IllegalArgumentException("unknown value type " + code);
+        }
+    }
+}
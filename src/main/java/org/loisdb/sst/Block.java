@@ -0,0 +1,280 @@
+package org.loisdb.sst;
+
+import org.loisdb.util.KeyComparator;
+import org.loisdb.util.SeekableIterator;
+import org.loisdb.util.Slice;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Block is a block built by {@link BlockBuilder} and read back into memory. A block never changes, any number of
+ * iterators may read it at the same time.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+final class Block {
+
+    private final byte[] data;
+
+    /**
+     * end of the entries, where the restart points begin.
+     */
+    private final int restartsOffset;
+
+    private final int restartCount;
+
+    /**
+     * Constructor of block.
+     *
+     * @param data   bytes of the block
+     * @param length num of bytes of the block in data
+     * @throws IOException if data is not a block
+     */
+    Block(byte[] data, int length) throws IOException {
+        if (length < 4) {
+            throw new IOException("block is too short!");
+        }
+        this.data = data;
+        this.restartCount = Coding.getInt(data, length - 4);
+        if (restartCount <= 0 || restartCount > (length - 4) / 4) {
+            throw new IOException("bad restart points of block!");
+        }
+        this.restartsOffset = length - 4 - restartCount * 4;
+    }
+
+    /**
+     * Create an iterator over the entries of this block.
+     *
+     * @param comparator order of keys
+     * @return a new iterator, not positioned at any entry
+     */
+    Iterator iterator(KeyComparator comparator) {
+        return new Iterator(comparator);
+    }
+
+    private int restartPoint(int index) {
+        return Coding.getInt(data, restartsOffset + index * 4);
+    }
+
+    /**
+     * An iterator over the entries of block. A seek binary searches the restart points, whose keys are stored whole,
+     * and then decodes at most restartInterval entries.
+     */
+    final class Iterator implements SeekableIterator {
+
+        private final KeyComparator comparator;
+
+        /**
+         * offset of current entry, restartsOffset if the iterator is not valid.
+         */
+        private int current = restartsOffset;
+
+        /**
+         * offset of the entry after current.
+         */
+        private int nextOffset;
+
+        /**
+         * index of the restart point at or before current.
+         */
+        private int restartIndex;
+
+        private byte[] keyBuffer = new byte[64];
+
+        private int keyLength;
+
+        private int valueOffset;
+
+        private int valueLength;
+
+        private final Slice key = new Slice();
+
+        private final Slice value = new Slice();
+
+        /**
+         * slice reused to view keys of restart points.
+         */
+        private final Slice scratch = new Slice();
+
+        /**
+         * end of the varint read last.
+         */
+        private int varintEnd;
+
+        Iterator(KeyComparator comparator) {
+            this.comparator = comparator;
+        }
+
+        @Override
+        public boolean valid() {
+            return current < restartsOffset;
+        }
+
+        @Override
+        public void seekToFirst() {
+            seekToRestartPoint(0);
+            parseNext();
+        }
+
+        @Override
+        public void seekToLast() {
+            seekToRestartPoint(restartCount - 1);
+            while (parseNext() && nextOffset < restartsOffset) {
+                // go on until the last entry.
+            }
+        }
+
+        @Override
+        public void seek(Slice target) {
+            // find the last restart point whose key is less than target.
+            int low = 0;
+            int high = restartCount - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (comparator.compare(restartKey(mid), target) < 0) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            seekToRestartPoint(low);
+            while (parseNext()) {
+                if (comparator.compare(key(), target) >= 0) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void seekForPrev(Slice target) {
+            seek(target);
+            if (!valid()) {
+                seekToLast();
+            } else if (comparator.compare(key(), target) > 0) {
+                prev();
+            }
+        }
+
+        @Override
+        public void next() {
+            checkValid();
+            parseNext();
+        }
+
+        @Override
+        public void prev() {
+            checkValid();
+            int original = current;
+            while (restartPoint(restartIndex) >= original) {
+                if (restartIndex == 0) {
+                    current = restartsOffset;
+                    return;
+                }
+                restartIndex--;
+            }
+            seekToRestartPoint(restartIndex);
+            while (parseNext() && nextOffset < original) {
+                // go on until the entry before original.
+            }
+        }
+
+        @Override
+        public Slice key() {
+            checkValid();
+            return key.set(keyBuffer, 0, keyLength);
+        }
+
+        @Override
+        public Slice value() {
+            checkValid();
+            return value.set(data, valueOffset, valueLength);
+        }
+
+        /**
+         * Point slice at the value of current entry.
+         *
+         * @param slice slice to be set
+         * @return slice
+         */
+        Slice value(Slice slice) {
+            checkValid();
+            return slice.set(data, valueOffset, valueLength);
+        }
+
+        private void seekToRestartPoint(int index) {
+            restartIndex = index;
+            keyLength = 0;
+            nextOffset = restartPoint(index);
+        }
+
+        /**
+         * Decode the entry at nextOffset into current.
+         *
+         * @return false if there is no more entry
+         */
+        private boolean parseNext() {
+            current = nextOffset;
+            if (current >= restartsOffset) {
+                current = restartsOffset;
+                return false;
+            }
+            int position = current;
+            int shared = readVarint(position);
+            position = varintEnd;
+            int unshared = readVarint(position);
+            position = varintEnd;
+            int length = readVarint(position);
+            position = varintEnd;
+            if (shared > keyLength || unshared < 0 || length < 0 || position + unshared + length > restartsOffset) {
+                throw new IllegalStateException("corrupted block entry at " + current);
+            }
+            if (shared + unshared > keyBuffer.length) {
+                keyBuffer = Arrays.copyOf(keyBuffer, Math.max(shared + unshared, keyBuffer.length << 1));
+            }
+            System.arraycopy(data, position, keyBuffer, shared, unshared);
+            keyLength = shared + unshared;
+            valueOffset = position + unshared;
+            valueLength = length;
+            nextOffset = valueOffset + length;
+            while (restartIndex + 1 < restartCount && restartPoint(restartIndex + 1) <= current) {
+                restartIndex++;
+            }
+            return true;
+        }
+
+        private Slice restartKey(int index) {
+            int position = restartPoint(index);
+            readVarint(position);
+            position = varintEnd;
+            int unshared = readVarint(position);
+            position = varintEnd;
+            readVarint(position);
+            position = varintEnd;
+            return scratch.set(data, position, unshared);
+        }
+
+        private int readVarint(int position) {
+            int result = 0;
+            for (int shift = 0; shift <= 28; shift += 7) {
+                if (position >= restartsOffset) {
+                    break;
+                }
+                byte b = data[position++];
+                result |= (b & 0x7f) << shift;
+                if (b >= 0) {
+                    varintEnd = position;
+                    return result;
+                }
+            }
+            throw new IllegalStateException("corrupted varint in block!");
+        }
+
+        private void checkValid() {
+            if (!valid()) {
+                throw new IllegalStateException("iterator is not valid!");
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.loisdb.sst;
+
+import org.loisdb.util.Slice;
+
+import java.util.Arrays;
+
+/**
+ * BlockBuilder builds a block of sorted entries. The key of an entry is stored as the length of the prefix it shares
+ * with the previous key plus the bytes after that prefix. Every restartInterval entries the prefix is not shared, the
+ * key is stored whole, such an entry is a restart point, and the offsets of all restart points are listed at the end
+ * of the block so a reader can binary search them.
+ * <pre>
+ * entry*    : shared key length (varint), unshared key length (varint), value length (varint),
+ *             unshared key bytes, value
+ * restarts  : offset of each restart point (int)*, num of restart points (int)
+ * </pre>
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+final class BlockBuilder {
+
+    private final int restartInterval;
+
+    private byte[] buffer;
+
+    private int size;
+
+    private int[] restarts;
+
+    private int restartCount;
+
+    /**
+     * num of entries since the last restart point.
+     */
+    private int counter;
+
+    private byte[] lastKey;
+
+    private int lastKeyLength;
+
+    private int entries;
+
+    BlockBuilder(int restartInterval) {
+        this.restartInterval = restartInterval;
+        this.buffer = new byte[256];
+        this.restarts = new int[16];
+        this.lastKey = new byte[64];
+        reset();
+    }
+
+    /**
+     * Clear the block so it can be built again.
+     */
+    void reset() {
+        size = 0;
+        restartCount = 0;
+        restarts[restartCount++] = 0;
+        counter = 0;
+        lastKeyLength = 0;
+        entries = 0;
+    }
+
+    /**
+     * Add an entry, key must be greater than any key added since the last reset.
+     *
+     * @param key   key
+     * @param value value
+     */
+    void add(Slice key, Slice value) {
+        int shared = 0;
+        if (counter < restartInterval) {
+            int limit = Math.min(lastKeyLength, key.length());
+            while (shared < limit && lastKey[shared] == key.getByte(shared)) {
+                shared++;
+            }
+        } else {
+            if (restartCount == restarts.length) {
+                restarts = Arrays.copyOf(restarts, restartCount << 1);
+            }
+            restarts[restartCount++] = size;
+            counter = 0;
+        }
+        int unshared = key.length() - shared;
+
+        ensure(15 + unshared + value.length());
+        size = Coding.putVarint32(buffer, size, shared);
+        size = Coding.putVarint32(buffer, size, unshared);
+        size = Coding.putVarint32(buffer, size, value.length());
+        for (int i = shared; i < key.length(); i++) {
+            buffer[size++] = key.getByte(i);
+        }
+        value.copyTo(buffer, size);
+        size += value.length();
+
+        if (lastKey.length < key.length()) {
+            lastKey = Arrays.copyOf(lastKey, Math.max(key.length(), lastKey.length << 1));
+        }
+        for (int i = shared; i < key.length(); i++) {
+            lastKey[i] = key.getByte(i);
+        }
+        lastKeyLength = key.length();
+        counter++;
+        entries++;
+    }
+
+    /**
+     * Return the size of the block if it is finished now.
+     *
+     * @return estimated size of the block
+     */
+    int estimatedSize() {
+        return size + (restartCount + 1) * 4;
+    }
+
+    boolean isEmpty() {
+        return entries == 0;
+    }
+
+    /**
+     * Return the last key added, valid until the next add or reset.
+     *
+     * @param slice slice to be set
+     * @return slice
+     */
+    Slice lastKey(Slice slice) {
+        return slice.set(lastKey, 0, lastKeyLength);
+    }
+
+    /**
+     * Append the restart points, the block must be reset before it is built again.
+     *
+     * @return the buffer holding the block, the block is its first {@link #size()} bytes
+     */
+    byte[] finish() {
+        ensure((restartCount + 1) * 4);
+        for (int i = 0; i < restartCount; i++) {
+            Coding.putInt(buffer, size, restarts[i]);
+            size += 4;
+        }
+        Coding.putInt(buffer, size, restartCount);
+        size += 4;
+        return buffer;
+    }
+
+    /**
+     * Return the size of a finished block.
+     *
+     * @return size of the block
+     */
+    int size() {
+        return size;
+    }
+
+    private void ensure(int more) {
+        if (size + more > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(size + more, buffer.length << 1));
+        }
+    }
+}
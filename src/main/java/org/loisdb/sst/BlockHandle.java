@@ -0,0 +1,86 @@
+package org.loisdb.sst;
+
+import org.loisdb.util.Slice;
+
+import java.io.IOException;
+
+/**
+ * Position of a block in a table file, the size does not include the checksum after the block.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+final class BlockHandle {
+
+    /**
+     * max size of an encoded handle: a varint64 and a varint32.
+     */
+    static final int MAX_ENCODED_LENGTH = 10 + 5;
+
+    private final long offset;
+
+    private final int size;
+
+    BlockHandle(long offset, int size) {
+        this.offset = offset;
+        this.size = size;
+    }
+
+    long offset() {
+        return offset;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Encode this handle as varints.
+     *
+     * @return encoded handle
+     */
+    byte[] encode() {
+        byte[] dst = new byte[MAX_ENCODED_LENGTH];
+        int position = Coding.putVarint64(dst, 0, offset);
+        position = Coding.putVarint64(dst, position, size);
+        byte[] encoded = new byte[position];
+        System.arraycopy(dst, 0, encoded, 0, position);
+        return encoded;
+    }
+
+    /**
+     * Decode a handle encoded by {@link #encode()}.
+     *
+     * @param src encoded handle
+     * @return the handle
+     * @throws IOException if src is not a handle
+     */
+    static BlockHandle decode(Slice src) throws IOException {
+        long offset = 0;
+        int position = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (position >= src.length() || shift > 63) {
+                throw new IOException("bad block handle!");
+            }
+            b = src.getByte(position++);
+            offset |= (long) (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        long size = 0;
+        shift = 0;
+        do {
+            if (position >= src.length() || shift > 63) {
+                throw new IOException("bad block handle!");
+            }
+            b = src.getByte(position++);
+            size |= (long) (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        if (offset < 0 || size < 0 || size > Integer.MAX_VALUE) {
+            throw new IOException("bad block handle!");
+        }
+        return new BlockHandle(offset, (int) size);
+    }
+}
@@ -0,0 +1,63 @@
+package org.loisdb.sst;
+
+/**
+ * Encoding of integers in table files. A varint stores 7 bits per byte from the lowest, the highest bit of a byte is
+ * set if more bytes follow. Fixed ints are big endian.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+final class Coding {
+
+    private Coding() {
+    }
+
+    /**
+     * Write v as a varint to dst at position, dst must have 5 bytes of room.
+     *
+     * @return position after the varint
+     */
+    static int putVarint32(byte[] dst, int position, int v) {
+        while ((v & ~0x7f) != 0) {
+            dst[position++] = (byte) (v | 0x80);
+            v >>>= 7;
+        }
+        dst[position++] = (byte) v;
+        return position;
+    }
+
+    /**
+     * Write v as a varint to dst at position, dst must have 10 bytes of room.
+     *
+     * @return position after the varint
+     */
+    static int putVarint64(byte[] dst, int position, long v) {
+        while ((v & ~0x7fL) != 0) {
+            dst[position++] = (byte) (v | 0x80);
+            v >>>= 7;
+        }
+        dst[position++] = (byte) v;
+        return position;
+    }
+
+    static void putInt(byte[] dst, int position, int v) {
+        dst[position] = (byte) (v >>> 24);
+        dst[position + 1] = (byte) (v >>> 16);
+        dst[position + 2] = (byte) (v >>> 8);
+        dst[position + 3] = (byte) v;
+    }
+
+    static int getInt(byte[] src, int position) {
+        return (src[position] & 0xff) << 24 | (src[position + 1] & 0xff) << 16 | (src[position + 2] & 0xff) << 8
+                | src[position + 3] & 0xff;
+    }
+
+    static void putLong(byte[] dst, int position, long v) {
+        putInt(dst, position, (int) (v >>> 32));
+        putInt(dst, position + 4, (int) v);
+    }
+
+    static long getLong(byte[] src, int position) {
+        return (long) getInt(src, position) << 32 | getInt(src, position + 4) & 0xffffffffL;
+    }
+}
@@ -0,0 +1,153 @@
+package org.loisdb.sst;
+
+import org.loisdb.util.BinaryFuseFilter;
+import org.loisdb.util.BlockedBloom;
+import org.loisdb.util.Bloom;
+import org.loisdb.util.Filter;
+import org.loisdb.util.RibbonFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Kind of the filter a table keeps of its keys. The filter block of a table is the serialized filter, the name of the
+ * prefix extractor whose prefixes it indexes (empty if none), the length of the name (byte) and the code of its kind,
+ * so a table is read with the filter it was written with whatever the options of the reader are.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public enum FilterType {
+
+    /**
+     * {@link Bloom}, its false positives are set by {@link TableOptions#setFilterFalsePositive(double)}.
+     */
+    BLOOM((byte) 1),
+
+    /**
+     * {@link BlockedBloom}, a lookup costs one cache miss, its false positives are set by
+     * {@link TableOptions#setFilterFalsePositive(double)}.
+     */
+    BLOCKED_BLOOM((byte) 2),
+
+    /**
+     * {@link BinaryFuseFilter}, about 9 bits per key with fixed false positives of 0.4%, the smallest and fastest
+     * filter of an immutable key set.
+     */
+    BINARY_FUSE((byte) 3),
+
+    /**
+     * {@link RibbonFilter}, about 30% smaller than a bloom filter of the same false positives, which are set by
+     * {@link TableOptions#setFilterFalsePositive(double)}. A table builder given the expected num of entries bands
+     * keys as they are added instead of keeping their hashes.
+     */
+    RIBBON((byte) 4);
+
+    private final byte code;
+
+    FilterType(byte code) {
+        this.code = code;
+    }
+
+    /**
+     * Return the code of this kind stored at the end of a filter block.
+     *
+     * @return the code of this kind
+     */
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * Build a filter of the first count keys.
+     *
+     * @param hashes {@link org.loisdb.util.XxHash64} hashes of keys
+     * @param count  num of keys, at least 1
+     * @param fp     false positives of bloom filters
+     * @return the filter
+     */
+    Filter build(long[] hashes, int count, double fp) {
+        switch (this) {
+            case BLOOM:
+                Bloom bloom = new Bloom(fp, count);
+                for (int i = 0; i < count; i++) {
+                    bloom.insertHash(hashes[i]);
+                }
+                return bloom;
+            case BLOCKED_BLOOM:
+                BlockedBloom blockedBloom = new BlockedBloom(fp, count);
+                for (int i = 0; i < count; i++) {
+                    blockedBloom.insertHash(hashes[i]);
+                }
+                return blockedBloom;
+            case RIBBON:
+                return RibbonFilter.build(hashes, count, fp);
+            default:
+                return BinaryFuseFilter.build(hashes, count);
+        }
+    }
+
+    /**
+     * Serialize filter as a filter block.
+     *
+     * @param filter              filter built by this kind
+     * @param prefixExtractorName name of the extractor of prefixes indexed by filter, null if none
+     * @return content of filter block
+     */
+    byte[] encode(Filter filter, String prefixExtractorName) {
+        byte[] bytes = filter.toBytes();
+        byte[] name = prefixExtractorName == null ? new byte[0]
+                : prefixExtractorName.getBytes(StandardCharsets.UTF_8);
+        if (name.length > 0xff) {
+            throw new IllegalArgumentException("name of prefix extractor is too long!");
+        }
+        byte[] block = Arrays.copyOf(bytes, bytes.length + name.length + 2);
+        System.arraycopy(name, 0, block, bytes.length, name.length);
+        block[block.length - 2] = (byte) name.length;
+        block[block.length - 1] = code;
+        return block;
+    }
+
+    /**
+     * Return the name of the extractor of prefixes indexed by the filter of a filter block.
+     *
+     * @param block  bytes holding the filter block
+     * @param length size of the filter block
+     * @return name of the extractor, null if the filter indexes no prefix
+     */
+    static String decodePrefixExtractorName(byte[] block, int length) {
+        int nameLength = nameLength(block, length);
+        return nameLength == 0 ? null
+                : new String(block, length - 2 - nameLength, nameLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Restore the filter of a filter block.
+     *
+     * @param block  bytes holding the filter block
+     * @param length size of the filter block
+     * @return the filter
+     */
+    static Filter decode(byte[] block, int length) {
+        byte[] bytes = Arrays.copyOf(block, length - 2 - nameLength(block, length));
+        switch (block[length - 1]) {
+            case 1:
+                return Bloom.fromBytes(bytes);
+            case 2:
+                return BlockedBloom.fromBytes(bytes);
+            case 3:
+                return BinaryFuseFilter.fromBytes(bytes);
+            case 4:
+                return RibbonFilter.fromBytes(bytes);
+            default:
+                throw new IllegalArgumentException("unknown filter type " + block[length - 1]);
+        }
+    }
+
+    private static int nameLength(byte[] block, int length) {
+        if (length < 2 || length - 2 < (block[length - 2] & 0xff)) {
+            throw new IllegalArgumentException("filter block is too short!");
+        }
+        return block[length - 2] & 0xff;
+    }
+}
@@ -0,0 +1,424 @@
+package org.loisdb.sst;
+
+import org.loisdb.memtable.ValueType;
+import org.loisdb.util.Filter;
+import org.loisdb.util.KeyComparator;
+import org.loisdb.util.PrefixExtractor;
+import org.loisdb.util.SeekableIterator;
+import org.loisdb.util.Slice;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Table is a sorted table written by {@link TableBuilder}. The index block is loaded when the table is opened, a
+ * lookup binary searches the index block for the only data block which may hold the key, reads that block, and binary
+ * searches its restart points.
+ * The filter block is loaded by the first lookup, a key ruled out by the filter is answered without reading any data
+ * block, so tables which are opened but never read cost no memory for their filters. A filter which indexes the
+ * prefixes of keys also lets a scan of a prefix skip a table without any read, see {@link #mayContainPrefix(Slice)}.
+ * A table never changes once it is written, it can be read by any number of threads.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class Table implements AutoCloseable {
+
+    private final File file;
+
+    private final FileChannel channel;
+
+    private final KeyComparator comparator;
+
+    private final Block index;
+
+    private final int entries;
+
+    /**
+     * handle of the filter block, its size is 0 if the table has no filter.
+     */
+    private final BlockHandle filterHandle;
+
+    /**
+     * extractor of prefixes of the reader, null if the reader does not look up prefixes.
+     */
+    private final PrefixExtractor prefixExtractor;
+
+    /**
+     * the filter, null until it is loaded.
+     */
+    private volatile Filter filter;
+
+    /**
+     * if the filter indexes the prefixes of prefixExtractor, set before filter is published.
+     */
+    private boolean prefixFiltered;
+
+    private Table(File file, FileChannel channel, KeyComparator comparator, Block index, int entries,
+                  BlockHandle filterHandle, PrefixExtractor prefixExtractor) {
+        this.file = file;
+        this.channel = channel;
+        this.comparator = comparator;
+        this.index = index;
+        this.entries = entries;
+        this.filterHandle = filterHandle;
+        this.prefixExtractor = prefixExtractor;
+    }
+
+    /**
+     * Open a table written with default options.
+     *
+     * @param file table file
+     * @return the table
+     * @throws IOException if file can not be read or is not a table
+     */
+    public static Table open(File file) throws IOException {
+        return open(file, new TableOptions());
+    }
+
+    /**
+     * Open a table.
+     *
+     * @param file    table file
+     * @param options options the table was written with
+     * @return the table
+     * @throws IOException if file can not be read or is not a table
+     */
+    public static Table open(File file, TableOptions options) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < TableBuilder.FOOTER_SIZE) {
+                throw new IOException("table " + file + " is too short!");
+            }
+            byte[] footer = read(channel, fileSize - TableBuilder.FOOTER_SIZE, TableBuilder.FOOTER_SIZE);
+            if (Coding.getLong(footer, 28) != TableBuilder.MAGIC) {
+                throw new IOException("table " + file + " is corrupted!");
+            }
+            BlockHandle filterHandle = new BlockHandle(Coding.getLong(footer, 0), Coding.getInt(footer, 8));
+            BlockHandle handle = new BlockHandle(Coding.getLong(footer, 12), Coding.getInt(footer, 20));
+            Block index = readBlock(channel, handle, fileSize - TableBuilder.FOOTER_SIZE);
+            return new Table(file, channel, options.getComparator(), index, Coding.getInt(footer, 24), filterHandle,
+                    options.getPrefixExtractor());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Return the file of this table.
+     *
+     * @return the file of this table
+     */
+    public File file() {
+        return file;
+    }
+
+    /**
+     * Return num of entries, a deletion counts as an entry.
+     *
+     * @return num of entries
+     */
+    public int size() {
+        return entries;
+    }
+
+    /**
+     * Look up the entry of key.
+     *
+     * @param key   key
+     * @param value set to the value if the entry is a VALUE
+     * @return kind of the entry, null if there is no entry of key
+     * @throws IOException if the data block can not be read
+     */
+    public ValueType get(Slice key, Slice value) throws IOException {
+        if (!mayContainKey(key)) {
+            return null;
+        }
+        Block.Iterator indexIterator = index.iterator(comparator);
+        indexIterator.seek(key);
+        if (!indexIterator.valid()) {
+            return null;
+        }
+        Block block = readBlock(BlockHandle.decode(indexIterator.value()));
+        Block.Iterator blockIterator = block.iterator(comparator);
+        blockIterator.seek(key);
+        if (!blockIterator.valid() || comparator.compare(blockIterator.key(), key) != 0) {
+            return null;
+        }
+        blockIterator.value(value);
+        ValueType type = ValueType.fromCode(value.getByte(0));
+        value.removePrefix(1);
+        return type;
+    }
+
+    /**
+     * Check the filter of this table for key, the filter is loaded by the first check. No data block is read.
+     *
+     * @param key key
+     * @return false if this table has no entry of key, true if it may have one or the table has no filter
+     * @throws IOException if the filter block can not be read
+     */
+    public boolean mayContainKey(Slice key) throws IOException {
+        if (filterHandle.size() == 0) {
+            return true;
+        }
+        Filter f = filter;
+        if (f == null) {
+            f = loadFilter();
+        }
+        return f.mayContainsKey(key);
+    }
+
+    /**
+     * Check the filter of this table for a prefix of the prefix extractor of the options this table is opened with,
+     * the filter is loaded by the first check. No data block is read.
+     *
+     * @param prefix prefix of keys
+     * @return false if this table has no key of prefix, true if it may have one or the filter does not index the
+     * prefixes of the extractor
+     * @throws IOException if the filter block can not be read
+     */
+    public boolean mayContainPrefix(Slice prefix) throws IOException {
+        if (filterHandle.size() == 0 || prefixExtractor == null) {
+            return true;
+        }
+        Filter f = filter;
+        if (f == null) {
+            f = loadFilter();
+        }
+        return !prefixFiltered || f.mayContainsHash(PrefixExtractor.hashPrefix(prefix));
+    }
+
+    /**
+     * Create an iterator over the entries of this table in key order. A failed read of a data block is thrown as
+     * {@link UncheckedIOException}.
+     *
+     * @return a new iterator, not positioned at any entry
+     */
+    public Iterator iterator() {
+        return new Iterator();
+    }
+
+    /**
+     * Close the file of this table, no read may follow.
+     *
+     * @throws IOException if the file can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private synchronized Filter loadFilter() throws IOException {
+        if (filter == null) {
+            byte[] bytes = readChecked(channel, filterHandle, channel.size() - TableBuilder.FOOTER_SIZE);
+            try {
+                String name = FilterType.decodePrefixExtractorName(bytes, filterHandle.size());
+                Filter f = FilterType.decode(bytes, filterHandle.size());
+                prefixFiltered = prefixExtractor != null && prefixExtractor.name().equals(name);
+                filter = f;
+            } catch (IllegalArgumentException e) {
+                throw new IOException("filter block of table " + file + " is corrupted!", e);
+            }
+        }
+        return filter;
+    }
+
+    private Block readBlock(BlockHandle handle) throws IOException {
+        return readBlock(channel, handle, channel.size() - TableBuilder.FOOTER_SIZE);
+    }
+
+    private static Block readBlock(FileChannel channel, BlockHandle handle, long limit) throws IOException {
+        return new Block(readChecked(channel, handle, limit), handle.size());
+    }
+
+    /**
+     * Read a block with its checksum and verify it.
+     */
+    private static byte[] readChecked(FileChannel channel, BlockHandle handle, long limit) throws IOException {
+        if (handle.offset() + handle.size() + TableBuilder.CHECKSUM_SIZE > limit) {
+            throw new IOException("block handle out of table!");
+        }
+        byte[] bytes = read(channel, handle.offset(), handle.size() + TableBuilder.CHECKSUM_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, handle.size());
+        if ((int) crc.getValue() != Coding.getInt(bytes, handle.size())) {
+            throw new IOException("checksum mismatch of block at " + handle.offset());
+        }
+        return bytes;
+    }
+
+    private static byte[] read(FileChannel channel, long position, int size) throws IOException {
+        byte[] bytes = new byte[size];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of table!");
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * An iterator over the entries of table, it walks the index block and the data block under the current index
+     * entry. Value of an iterator does not include the code of its kind.
+     */
+    public final class Iterator implements SeekableIterator {
+
+        private final Block.Iterator indexIterator = index.iterator(comparator);
+
+        /**
+         * iterator of the data block under indexIterator, null if indexIterator is not valid.
+         */
+        private Block.Iterator dataIterator;
+
+        /**
+         * offset of the data block under dataIterator.
+         */
+        private long dataOffset = -1;
+
+        private final Slice value = new Slice();
+
+        Iterator() {
+        }
+
+        @Override
+        public boolean valid() {
+            return dataIterator != null && dataIterator.valid();
+        }
+
+        @Override
+        public void seekToFirst() {
+            indexIterator.seekToFirst();
+            initDataBlock();
+            if (dataIterator != null) {
+                dataIterator.seekToFirst();
+            }
+            skipEmptyBlocksForward();
+        }
+
+        @Override
+        public void seekToLast() {
+            indexIterator.seekToLast();
+            initDataBlock();
+            if (dataIterator != null) {
+                dataIterator.seekToLast();
+            }
+            skipEmptyBlocksBackward();
+        }
+
+        @Override
+        public void seek(Slice target) {
+            indexIterator.seek(target);
+            initDataBlock();
+            if (dataIterator != null) {
+                dataIterator.seek(target);
+            }
+            skipEmptyBlocksForward();
+        }
+
+        @Override
+        public void seekForPrev(Slice target) {
+            seek(target);
+            if (!valid()) {
+                seekToLast();
+            } else if (comparator.compare(key(), target) > 0) {
+                prev();
+            }
+        }
+
+        @Override
+        public void next() {
+            checkValid();
+            dataIterator.next();
+            skipEmptyBlocksForward();
+        }
+
+        @Override
+        public void prev() {
+            checkValid();
+            dataIterator.prev();
+            skipEmptyBlocksBackward();
+        }
+
+        @Override
+        public Slice key() {
+            checkValid();
+            return dataIterator.key();
+        }
+
+        /**
+         * Return the kind of the entry the iterator is positioned at.
+         *
+         * @return kind of current entry
+         */
+        public ValueType type() {
+            checkValid();
+            return ValueType.fromCode(dataIterator.value().getByte(0));
+        }
+
+        @Override
+        public Slice value() {
+            checkValid();
+            return dataIterator.value(value).removePrefix(1);
+        }
+
+        private void skipEmptyBlocksForward() {
+            while (dataIterator == null || !dataIterator.valid()) {
+                if (!indexIterator.valid()) {
+                    dataIterator = null;
+                    return;
+                }
+                indexIterator.next();
+                initDataBlock();
+                if (dataIterator != null) {
+                    dataIterator.seekToFirst();
+                }
+            }
+        }
+
+        private void skipEmptyBlocksBackward() {
+            while (dataIterator == null || !dataIterator.valid()) {
+                if (!indexIterator.valid()) {
+                    dataIterator = null;
+                    return;
+                }
+                indexIterator.prev();
+                initDataBlock();
+                if (dataIterator != null) {
+                    dataIterator.seekToLast();
+                }
+            }
+        }
+
+        private void initDataBlock() {
+            if (!indexIterator.valid()) {
+                dataIterator = null;
+                dataOffset = -1;
+                return;
+            }
+            try {
+                BlockHandle handle = BlockHandle.decode(indexIterator.value());
+                if (dataIterator == null || handle.offset() != dataOffset) {
+                    dataIterator = readBlock(handle).iterator(comparator);
+                    dataOffset = handle.offset();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void checkValid() {
+            if (!valid()) {
+                throw new IllegalStateException("iterator is not valid!");
+            }
+        }
+    }
+}
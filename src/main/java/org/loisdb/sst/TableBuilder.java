@@ -0,0 +1,289 @@
+package org.loisdb.sst;
+
+import org.loisdb.memtable.ValueType;
+import org.loisdb.util.Filter;
+import org.loisdb.util.KeyComparator;
+import org.loisdb.util.PrefixExtractor;
+import org.loisdb.util.RibbonFilter;
+import org.loisdb.util.Slice;
+import org.loisdb.util.XxHash64;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * TableBuilder writes entries, which must be added in increasing order of key, to a sorted table.
+ * The layout of a table is:
+ * <pre>
+ * data block*  : entries of the table, each block is cut once it reaches blockSize
+ * filter block : the serialized filter of all keys, and of their prefixes if a prefix extractor is set, see
+ *                {@link FilterType} for its layout, absent if the filter is disabled
+ * index block  : one entry per data block, the key is the last key of the data block, the value is the
+ *                handle (offset and size, both varints) of the data block
+ * footer       : handle of filter block (offset long, size int, size 0 if absent), handle of index block
+ *                (offset long, size int), num of entries (int), magic (long)
+ * </pre>
+ * Every block is followed by the CRC32 of its bytes (int), see {@link BlockBuilder} for the layout of a block. The
+ * value of an entry in a data block starts with the code of its {@link ValueType}. Keys are only kept as their
+ * {@link XxHash64} hash until the filter is built in {@link #finish()}.
+ * All fixed size ints and longs are big endian.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class TableBuilder {
+
+    /**
+     * magic at the end of every table.
+     */
+    static final long MAGIC = 0x6c6f697364627374L;
+
+    /**
+     * size of footer.
+     */
+    static final int FOOTER_SIZE = 8 + 4 + 8 + 4 + 4 + 8;
+
+    /**
+     * size of the checksum after every block.
+     */
+    static final int CHECKSUM_SIZE = 4;
+
+    private final OutputStream out;
+
+    private final TableOptions options;
+
+    private final KeyComparator comparator;
+
+    private final BlockBuilder dataBlock;
+
+    private final BlockBuilder indexBlock;
+
+    private final CRC32 crc;
+
+    /**
+     * buffer of the value of an entry with its type.
+     */
+    private byte[] valueBuffer;
+
+    private final Slice entryValue;
+
+    private final Slice scratch;
+
+    /**
+     * hashes of all keys and prefixes, null if the filter is disabled or is built while keys are added.
+     */
+    private long[] keyHashes;
+
+    private int numHashes;
+
+    private final PrefixExtractor prefixExtractor;
+
+    private final Slice prefix;
+
+    /**
+     * prefix of the previous key, a copy in lastPrefixBuffer. Keys of a prefix are adjacent so a prefix is indexed
+     * once.
+     */
+    private final Slice lastPrefix;
+
+    private byte[] lastPrefixBuffer;
+
+    /**
+     * ribbon filter banding keys as they are added, null unless the filter is a ribbon filter of known num of keys.
+     */
+    private RibbonFilter.Builder ribbon;
+
+    /**
+     * num of bytes written.
+     */
+    private long offset;
+
+    private int entries;
+
+    private boolean finished;
+
+    /**
+     * Constructor of table builder with default options.
+     *
+     * @param out stream the table is written to, it is not closed by this builder
+     */
+    public TableBuilder(OutputStream out) {
+        this(out, new TableOptions());
+    }
+
+    /**
+     * Constructor of table builder.
+     *
+     * @param out     stream the table is written to, it is not closed by this builder
+     * @param options options of table
+     */
+    public TableBuilder(OutputStream out, TableOptions options) {
+        this(out, options, -1);
+    }
+
+    /**
+     * Constructor of table builder which knows how many entries will be added, a ribbon filter is then built while
+     * entries are added and the hashes of keys are not kept, unless prefixes are indexed as well.
+     *
+     * @param out             stream the table is written to, it is not closed by this builder
+     * @param options         options of table
+     * @param expectedEntries num of entries to be added, negative if unknown
+     */
+    public TableBuilder(OutputStream out, TableOptions options, int expectedEntries) {
+        this.out = out;
+        this.options = options;
+        this.comparator = options.getComparator();
+        this.dataBlock = new BlockBuilder(options.getBlockRestartInterval());
+        // lookups binary search the whole index block, so it needs no prefix compression between restart points.
+        this.indexBlock = new BlockBuilder(1);
+        this.crc = new CRC32();
+        this.valueBuffer = new byte[64];
+        this.entryValue = new Slice();
+        this.scratch = new Slice();
+        this.prefixExtractor = options.getPrefixExtractor();
+        this.prefix = new Slice();
+        this.lastPrefix = new Slice();
+        if (options.getFilterFalsePositive() > 0) {
+            if (options.getFilterType() == FilterType.RIBBON && expectedEntries >= 0 && prefixExtractor == null) {
+                this.ribbon = new RibbonFilter.Builder(options.getFilterFalsePositive(), expectedEntries);
+            } else {
+                this.keyHashes = new long[64];
+            }
+        }
+    }
+
+    /**
+     * Add an entry.
+     *
+     * @param key   key, greater than the key of the previous entry
+     * @param type  kind of entry
+     * @param value value, empty for a deletion
+     * @throws IOException if the stream fails
+     */
+    public void add(Slice key, ValueType type, Slice value) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("table has been finished!");
+        }
+        Slice last = !dataBlock.isEmpty() ? dataBlock.lastKey(scratch)
+                : !indexBlock.isEmpty() ? indexBlock.lastKey(scratch) : null;
+        if (last != null && comparator.compare(key, last) <= 0) {
+            throw new IllegalArgumentException("keys must be added in increasing order!");
+        }
+
+        if (valueBuffer.length < value.length() + 1) {
+            valueBuffer = Arrays.copyOf(valueBuffer, Math.max(value.length() + 1, valueBuffer.length << 1));
+        }
+        valueBuffer[0] = type.code();
+        value.copyTo(valueBuffer, 1);
+        dataBlock.add(key, entryValue.set(valueBuffer, 0, value.length() + 1));
+        if (ribbon != null) {
+            ribbon.add(XxHash64.hash(key));
+        } else if (keyHashes != null) {
+            addHash(XxHash64.hash(key));
+            if (prefixExtractor != null && prefixExtractor.inDomain(key)) {
+                prefixExtractor.prefix(key, prefix);
+                if (lastPrefixBuffer == null || !prefix.equals(lastPrefix)) {
+                    if (lastPrefixBuffer == null || lastPrefixBuffer.length < prefix.length()) {
+                        lastPrefixBuffer = new byte[Math.max(prefix.length(), 16)];
+                    }
+                    prefix.copyTo(lastPrefixBuffer, 0);
+                    lastPrefix.set(lastPrefixBuffer, 0, prefix.length());
+                    addHash(PrefixExtractor.hashPrefix(prefix));
+                }
+            }
+        }
+        entries++;
+        if (dataBlock.estimatedSize() >= options.getBlockSize()) {
+            flushDataBlock();
+        }
+    }
+
+    /**
+     * Return num of entries added.
+     *
+     * @return num of entries added
+     */
+    public int entries() {
+        return entries;
+    }
+
+    /**
+     * Return num of bytes written so far, after finish it is the size of the table.
+     *
+     * @return num of bytes written
+     */
+    public long fileSize() {
+        return offset;
+    }
+
+    /**
+     * Write the last data block, the filter block, the index block and the footer, then flush the stream. No entry
+     * can be added any more.
+     *
+     * @throws IOException if the stream fails
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (!dataBlock.isEmpty()) {
+            flushDataBlock();
+        }
+        BlockHandle filter = new BlockHandle(offset, 0);
+        if ((keyHashes != null || ribbon != null) && entries > 0) {
+            FilterType type = options.getFilterType();
+            Filter built = ribbon != null ? ribbon.build()
+                    : type.build(keyHashes, numHashes, options.getFilterFalsePositive());
+            byte[] bytes = type.encode(built, prefixExtractor == null ? null : prefixExtractor.name());
+            filter = writeBlock(bytes, bytes.length);
+        }
+        keyHashes = null;
+        ribbon = null;
+        BlockHandle index = writeBlock(indexBlock);
+
+        byte[] footer = new byte[FOOTER_SIZE];
+        Coding.putLong(footer, 0, filter.offset());
+        Coding.putInt(footer, 8, filter.size());
+        Coding.putLong(footer, 12, index.offset());
+        Coding.putInt(footer, 20, index.size());
+        Coding.putInt(footer, 24, entries);
+        Coding.putLong(footer, 28, MAGIC);
+        out.write(footer);
+        offset += footer.length;
+        out.flush();
+    }
+
+    private void addHash(long hash) {
+        if (numHashes == keyHashes.length) {
+            keyHashes = Arrays.copyOf(keyHashes, numHashes << 1);
+        }
+        keyHashes[numHashes++] = hash;
+    }
+
+    private void flushDataBlock() throws IOException {
+        BlockHandle handle = writeBlock(dataBlock);
+        indexBlock.add(dataBlock.lastKey(scratch), new Slice(handle.encode()));
+        dataBlock.reset();
+    }
+
+    private BlockHandle writeBlock(BlockBuilder block) throws IOException {
+        byte[] bytes = block.finish();
+        return writeBlock(bytes, block.size());
+    }
+
+    private BlockHandle writeBlock(byte[] bytes, int size) throws IOException {
+        crc.reset();
+        crc.update(bytes, 0, size);
+        byte[] checksum = new byte[CHECKSUM_SIZE];
+        Coding.putInt(checksum, 0, (int) crc.getValue());
+        out.write(bytes, 0, size);
+        out.write(checksum);
+
+        BlockHandle handle = new BlockHandle(offset, size);
+        offset += size + CHECKSUM_SIZE;
+        return handle;
+    }
+}
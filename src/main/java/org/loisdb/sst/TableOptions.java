@@ -0,0 +1,181 @@
+package org.loisdb.sst;
+
+import org.loisdb.util.BytewiseComparator;
+import org.loisdb.util.KeyComparator;
+import org.loisdb.util.PrefixExtractor;
+
+/**
+ * Options of sorted tables, the same options must be used to write and to read a table.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class TableOptions {
+
+    /**
+     * Default size of a data block before it is cut, 4KB.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 4 << 10;
+
+    /**
+     * Default num of entries between two restart points.
+     */
+    public static final int DEFAULT_BLOCK_RESTART_INTERVAL = 16;
+
+    /**
+     * Default false positives of the bloom filter of a table, about 10 bits per key.
+     */
+    public static final double DEFAULT_FILTER_FALSE_POSITIVE = 0.01;
+
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+
+    private int blockRestartInterval = DEFAULT_BLOCK_RESTART_INTERVAL;
+
+    private KeyComparator comparator = BytewiseComparator.INSTANCE;
+
+    private double filterFalsePositive = DEFAULT_FILTER_FALSE_POSITIVE;
+
+    private FilterType filterType = FilterType.BLOOM;
+
+    private PrefixExtractor prefixExtractor;
+
+    /**
+     * Return the size a data block is cut at, a block is slightly larger since it is cut after the entry which
+     * reaches the size.
+     *
+     * @return size of a data block
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Set the size a data block is cut at, 4KB to 16KB is a good choice for disks and page caches.
+     *
+     * @param blockSize size of a data block
+     * @return this options
+     */
+    public TableOptions setBlockSize(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize " + blockSize);
+        }
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    /**
+     * Return num of entries between two restart points.
+     *
+     * @return num of entries between two restart points
+     */
+    public int getBlockRestartInterval() {
+        return blockRestartInterval;
+    }
+
+    /**
+     * Set num of entries between two restart points. The key of a restart point is stored whole, keys after it only
+     * store what differs from the previous key. A larger interval compresses keys better, a smaller one makes a
+     * lookup decode less entries after the binary search over restart points.
+     *
+     * @param blockRestartInterval num of entries between two restart points
+     * @return this options
+     */
+    public TableOptions setBlockRestartInterval(int blockRestartInterval) {
+        if (blockRestartInterval <= 0) {
+            throw new IllegalArgumentException("blockRestartInterval " + blockRestartInterval);
+        }
+        this.blockRestartInterval = blockRestartInterval;
+        return this;
+    }
+
+    /**
+     * Return the order of keys.
+     *
+     * @return order of keys
+     */
+    public KeyComparator getComparator() {
+        return comparator;
+    }
+
+    /**
+     * Set the order of keys.
+     *
+     * @param comparator order of keys
+     * @return this options
+     */
+    public TableOptions setComparator(KeyComparator comparator) {
+        this.comparator = comparator;
+        return this;
+    }
+
+    /**
+     * Return false positives of the bloom filter of a table, 0 if tables are written without filter of any kind.
+     *
+     * @return false positives of the bloom filter
+     */
+    public double getFilterFalsePositive() {
+        return filterFalsePositive;
+    }
+
+    /**
+     * Set false positives of the bloom filter of a table, a lookup of a key ruled out by the filter reads no data
+     * block. A binary fuse filter has fixed false positives and ignores it. 0 writes tables without filter of any
+     * kind, a table written without filter can still be read with any options.
+     *
+     * @param filterFalsePositive false positives of the bloom filter, in [0, 1)
+     * @return this options
+     */
+    public TableOptions setFilterFalsePositive(double filterFalsePositive) {
+        if (filterFalsePositive < 0 || filterFalsePositive >= 1) {
+            throw new IllegalArgumentException("filterFalsePositive " + filterFalsePositive);
+        }
+        this.filterFalsePositive = filterFalsePositive;
+        return this;
+    }
+
+    /**
+     * Return the kind of filter of a table.
+     *
+     * @return kind of filter
+     */
+    public FilterType getFilterType() {
+        return filterType;
+    }
+
+    /**
+     * Set the kind of filter of a table, {@link FilterType#BINARY_FUSE} is smaller and faster than bloom filters for
+     * the immutable key set of a table.
+     *
+     * @param filterType kind of filter
+     * @return this options
+     */
+    public TableOptions setFilterType(FilterType filterType) {
+        if (filterType == null) {
+            throw new IllegalArgumentException("filterType is null");
+        }
+        this.filterType = filterType;
+        return this;
+    }
+
+    /**
+     * Return the extractor of prefixes indexed by the filter of a table, null if only whole keys are indexed.
+     *
+     * @return extractor of prefixes
+     */
+    public PrefixExtractor getPrefixExtractor() {
+        return prefixExtractor;
+    }
+
+    /**
+     * Set the extractor of prefixes indexed by the filter of a table, besides whole keys. A table whose filter rules
+     * a prefix out is skipped by a scan of the prefix, see {@link Table#mayContainPrefix(org.loisdb.util.Slice)}.
+     * Tables must be read with an extractor of the same name to use their prefixes.
+     *
+     * @param prefixExtractor extractor of prefixes, null if only whole keys are indexed
+     * @return this options
+     */
+    public TableOptions setPrefixExtractor(PrefixExtractor prefixExtractor) {
+        this.prefixExtractor = prefixExtractor;
+        return this;
+    }
+}
@@ -1,16 +1,48 @@
 package org.loisdb.util;
 
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.loisdb.util.UnsafeAccess.BYTE_ARRAY_BASE_OFFSET;
+import static org.loisdb.util.UnsafeAccess.UNSAFE;
 
 /**
  * Arena is a continuous memory pool used to store key and value. All operations of loisDB will be appended to arena.
  * When the usage of arena exceeds a certain threshold, memtable will be transformed to immutable.
+ * The memory pool is either byte[] on the heap or blocks of native memory outside the heap. An off-heap arena
+ * does not add to the marking time of the garbage collector, and its memory is given back to the system as soon as
+ * the arena is closed.
+ * A growable arena is a list of fixed size chunks. An offset is split into the index of its chunk (high bits) and the
+ * position inside that chunk (low bits), so growing only adds a chunk, data is never moved and an offset stays valid
+ * for the whole life of the arena. A small allocation never crosses a chunk, the tail of a chunk which can't hold it
+ * is skipped. An allocation larger than a chunk gets a block of its own which takes the place of several chunks.
  *
  * @author zhanglongxiang
  * @since 2022/7/2
  */
-public class Arena {
+public class Arena implements AutoCloseable {
+
+    /**
+     * mask used to align an offset to 8 bytes.
+     */
+    private static final int ALIGN_MASK = 7;
+
+    /**
+     * a growable arena uses chunks of at least 64KB.
+     */
+    private static final int MIN_CHUNK_SHIFT = 16;
+
+    /**
+     * a growable arena uses chunks of at most 4MB.
+     */
+    private static final int MAX_CHUNK_SHIFT = 22;
+
+    /**
+     * chunk shift of an arena which can not expansion, every offset is in chunk 0.
+     */
+    private static final int SINGLE_CHUNK_SHIFT = 31;
+
+    private static final byte[] EMPTY = new byte[0];
 
     /**
      * current offset of buf.
@@ -18,19 +50,49 @@ public class Arena {
     private final AtomicInteger offset;
 
     /**
-     * label of expansion.
+     * memory pool used to store key-value, chunk i holds offsets [i << chunkShift, (i + 1) << chunkShift).
+     */
+    private final AtomicReferenceArray<Memory> buf;
+
+    /**
+     * log2 of chunk size.
      */
-    private final AtomicBoolean isReSize;
+    private final int chunkShift;
 
     /**
-     * memory pool used to store key-value.
+     * mask of the position inside a chunk.
      */
-    private volatile byte[] buf;
+    private final int chunkMask;
+
+    /**
+     * capacity of an arena which can not expansion.
+     */
+    private final int capacity;
 
     /**
      * if current arena can expansion.
      */
-    private boolean shouldGrow;
+    private final boolean shouldGrow;
+
+    /**
+     * if memory pool is allocated outside the heap.
+     */
+    private final boolean offHeap;
+
+    /**
+     * if this arena has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * size of thread local slabs, 0 means allocations always bump the shared offset.
+     */
+    private final int slabSize;
+
+    /**
+     * slab of each thread.
+     */
+    private final ThreadLocal<Slab> slabs;
 
     /**
      * Constructor of arena. Using this constructor, the capacity of buf will set to a certain size, the shouldGrow will
@@ -39,9 +101,7 @@ public class Arena {
      * @param size capacity of buf.
      */
     public Arena(int size) {
-        offset = new AtomicInteger(0);
-        isReSize = new AtomicBoolean(false);
-        buf = new byte[size];
+        this(size, false);
     }
 
     /**
@@ -51,52 +111,203 @@ public class Arena {
      * @param size capacity of buf.
      */
     public Arena(int size, boolean shouldGrow) {
+        this(size, shouldGrow, false);
+    }
+
+    /**
+     * Constructor of arena. Using this constructor, the capacity of buf will set to a certain size, this arena
+     * can/can't expansion, if shouldGrow was set to true/false, buf will be allocated outside the heap if offHeap
+     * was set to true. also current offset will be init to 0.
+     * A growable arena uses size rounded up to a power of two, between 64KB and 4MB, as its chunk size.
+     * An off-heap arena must be closed, otherwise its memory is never freed.
+     *
+     * @param size       capacity of buf.
+     * @param shouldGrow if this arena can expansion.
+     * @param offHeap    if buf is allocated outside the heap.
+     */
+    public Arena(int size, boolean shouldGrow, boolean offHeap) {
+        this(size, shouldGrow, offHeap, 0);
+    }
+
+    /**
+     * Constructor of arena. Same as {@link #Arena(int, boolean, boolean)}, and if slabSize is positive every thread
+     * carves slabs of slabSize bytes from this arena and hands out small allocations from its own slab with plain
+     * bumps, so writers on different cores do not contend on the shared offset. A slab never crosses a chunk, the
+     * unused tail of a slab is wasted when the thread needs a new one.
+     *
+     * @param size       capacity of buf.
+     * @param shouldGrow if this arena can expansion.
+     * @param offHeap    if buf is allocated outside the heap.
+     * @param slabSize   size of thread local slabs, 0 means no slab.
+     */
+    public Arena(int size, boolean shouldGrow, boolean offHeap, int slabSize) {
         offset = new AtomicInteger(0);
-        isReSize = new AtomicBoolean(false);
         this.shouldGrow = shouldGrow;
-        buf = new byte[size];
+        this.offHeap = offHeap;
+        if (shouldGrow) {
+            int shift = 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1);
+            chunkShift = Math.min(Math.max(shift, MIN_CHUNK_SHIFT), MAX_CHUNK_SHIFT);
+            chunkMask = (1 << chunkShift) - 1;
+            capacity = Integer.MAX_VALUE;
+            buf = new AtomicReferenceArray<>(1 << (SINGLE_CHUNK_SHIFT - chunkShift));
+        } else {
+            chunkShift = SINGLE_CHUNK_SHIFT;
+            chunkMask = Integer.MAX_VALUE;
+            capacity = size;
+            buf = new AtomicReferenceArray<>(1);
+            buf.set(0, Memory.allocate(size, offHeap));
+        }
+        this.slabSize = Math.min(Math.max(slabSize, 0), shouldGrow ? chunkMask + 1 : capacity);
+        this.slabs = this.slabSize > 0 ? ThreadLocal.withInitial(Slab::new) : null;
     }
 
     /**
-     * occupy a piece of space of this arena.
+     * Check if memory pool is allocated outside the heap.
+     *
+     * @return if memory pool is allocated outside the heap
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Return num of bytes handed out by this arena, including the skipped tails of chunks and the unused parts of
+     * thread local slabs. It is the measure used to decide when a memtable is full.
+     *
+     * @return num of bytes handed out by this arena
+     */
+    public int usage() {
+        return offset.get();
+    }
+
+    /**
+     * occupy a piece of space of this arena. An empty space takes no memory, its beginning may be in a chunk which
+     * does not exist yet, so it must never be read or written.
      *
      * @param size space to be occupied.
      * @return the beginning of the occupied space.
      */
     public int allocate(int size) {
-        int offsetAfterAllocate = offset.addAndGet(size);
+        if (size < 0 || size > 1 << 30) {
+            throw new RuntimeException("arena allocate failed!");
+        }
+        if (size == 0) {
+            return offset.get();
+        }
+        if (slabs != null && size <= slabSize >>> 2) {
+            Slab slab = slabs.get();
+            int start = slab.cursor;
+            if (slab.limit - start >= size) {
+                slab.cursor = start + size;
+                return start;
+            }
+            return refill(slab, size);
+        }
+        return allocateShared(size);
+    }
 
+    /**
+     * Carve a new slab for current thread and allocate size bytes from its beginning. An arena which can not
+     * expansion hands out a smaller slab when less than slabSize bytes are left.
+     */
+    private int refill(Slab slab, int size) {
+        int start;
+        int limit;
+        if (shouldGrow) {
+            start = allocateShared(slabSize);
+            limit = start + slabSize;
+        } else {
+            for (; ; ) {
+                int cur = offset.get();
+                limit = (int) Math.min((long) cur + slabSize, capacity);
+                if (limit - cur < size) {
+                    throw new RuntimeException("arena allocate failed!");
+                }
+                if (offset.compareAndSet(cur, limit)) {
+                    start = cur;
+                    break;
+                }
+            }
+        }
+        slab.cursor = start + size;
+        slab.limit = limit;
+        return start;
+    }
+
+    private int allocateShared(int size) {
         if (!shouldGrow) {
-            if (offsetAfterAllocate > buf.length) {
+            int offsetAfterAllocate = offset.addAndGet(size);
+            if (offsetAfterAllocate > capacity || offsetAfterAllocate < 0) {
                 throw new RuntimeException("arena allocate failed!");
             }
             return offsetAfterAllocate - size;
         }
 
-        if (offsetAfterAllocate > buf.length - 64) {
-            int growBy = buf.length;
-
-            if (growBy > 1 << 30) {
-                throw new RuntimeException("arena allocate failed!");
+        int chunkSize = chunkMask + 1;
+        for (; ; ) {
+            int cur = offset.get();
+            int start = cur;
+            int end;
+            if (size <= chunkSize) {
+                if ((cur & chunkMask) + size > chunkSize) {
+                    start = nextChunk(cur);
+                }
+                end = start + size;
+            } else {
+                if ((cur & chunkMask) != 0) {
+                    start = nextChunk(cur);
+                }
+                end = start + ((size + chunkMask) & ~chunkMask);
             }
-            growBy = Math.max(size, growBy);
-
-            if (((buf.length + growBy) & Integer.MAX_VALUE) != (buf.length + growBy)) {
+            if (start < 0 || end < 0) {
                 throw new RuntimeException("arena allocate failed!");
             }
+            if (offset.compareAndSet(cur, end)) {
+                ensureChunks(start, end - start);
+                return start;
+            }
+        }
+    }
 
-            byte[] tempBuf = new byte[(buf.length + growBy)];
+    private int nextChunk(int cur) {
+        return ((cur >>> chunkShift) + 1) << chunkShift;
+    }
 
-            for (; ; ) {
-                if (isReSize.compareAndSet(false, true)) {
-                    System.arraycopy(buf, 0, tempBuf, 0, buf.length);
-                    buf = tempBuf;
-                    break;
+    /**
+     * Make sure chunks covering [start, start + size) exist. Several writers may allocate from a new chunk at the
+     * same time, only one of them installs its memory.
+     */
+    private void ensureChunks(int start, int size) {
+        int first = start >>> chunkShift;
+        int last = (start + size - 1) >>> chunkShift;
+        if (first == last) {
+            if (buf.get(first) == null) {
+                Memory memory = Memory.allocate(chunkMask + 1, offHeap);
+                if (!buf.compareAndSet(first, null, memory)) {
+                    memory.free();
                 }
             }
+            return;
         }
 
-        return offsetAfterAllocate - size;
+        // a large allocation starts at a fresh chunk and owns all of its chunks, nobody else can race with us here.
+        Memory block = Memory.allocate((last - first + 1) << chunkShift, offHeap);
+        buf.set(first, block);
+        for (int i = first + 1; i <= last; i++) {
+            buf.set(i, block.slice((long) (i - first) << chunkShift));
+        }
+    }
+
+    /**
+     * occupy a piece of space of this arena whose beginning is aligned to 8 bytes, so that ints and longs written
+     * there can be read and updated atomically.
+     *
+     * @param size space to be occupied.
+     * @return the aligned beginning of the occupied space.
+     */
+    public int allocateAligned(int size) {
+        int allocate = allocate(size + ALIGN_MASK);
+        return (allocate + ALIGN_MASK) & ~ALIGN_MASK;
     }
 
     /**
@@ -107,7 +318,11 @@ public class Arena {
      */
     public int putBytes(byte[] bytes) {
         int allocate = allocate(bytes.length);
-        System.arraycopy(bytes, 0, buf, allocate, bytes.length);
+        if (bytes.length == 0) {
+            return allocate;
+        }
+        Memory memory = chunk(allocate);
+        UNSAFE.copyMemory(bytes, BYTE_ARRAY_BASE_OFFSET, memory.base, address(memory, allocate), bytes.length);
         return allocate;
     }
 
@@ -120,13 +335,132 @@ public class Arena {
      */
     public byte[] getBytes(int offset, int size) {
         byte[] bytes = new byte[size];
-        System.arraycopy(buf, offset, bytes, 0, size);
+        if (size == 0) {
+            return bytes;
+        }
+        Memory memory = chunk(offset);
+        UNSAFE.copyMemory(memory.base, address(memory, offset), bytes, BYTE_ARRAY_BASE_OFFSET, size);
         return bytes;
     }
 
+    /**
+     * Point slice at bytes of arena without copying them. The slice stays valid until this arena is closed.
+     *
+     * @param offset the start of the bytes.
+     * @param size   size of bytes.
+     * @param slice  slice to be reused.
+     * @return slice viewing the bytes.
+     */
+    public Slice getSlice(int offset, int size, Slice slice) {
+        if (size == 0) {
+            return slice.set(EMPTY, 0, 0);
+        }
+        Memory memory = chunk(offset);
+        return slice.set(memory.base, address(memory, offset), size);
+    }
+
+    /**
+     * Get a byte of arena.
+     *
+     * @param offset position of the byte.
+     * @return byte in arena.
+     */
+    public byte getByte(int offset) {
+        Memory memory = chunk(offset);
+        return UNSAFE.getByte(memory.base, address(memory, offset));
+    }
+
+    /**
+     * Put an int into arena with a plain write, offset must come from allocateAligned.
+     *
+     * @param offset position of the int.
+     * @param value  value to be put.
+     */
+    public void putInt(int offset, int value) {
+        Memory memory = chunk(offset);
+        UNSAFE.putInt(memory.base, address(memory, offset), value);
+    }
+
+    /**
+     * Get an int of arena with a volatile read, offset must come from allocateAligned.
+     *
+     * @param offset position of the int.
+     * @return int in arena.
+     */
+    public int getInt(int offset) {
+        Memory memory = chunk(offset);
+        return UNSAFE.getIntVolatile(memory.base, address(memory, offset));
+    }
+
+    /**
+     * Atomically set the int at offset to update if it currently equals expect, offset must come from
+     * allocateAligned.
+     *
+     * @param offset position of the int.
+     * @param expect expected value.
+     * @param update new value.
+     * @return true if successful.
+     */
+    public boolean casInt(int offset, int expect, int update) {
+        Memory memory = chunk(offset);
+        return UNSAFE.compareAndSwapInt(memory.base, address(memory, offset), expect, update);
+    }
+
+    /**
+     * Put a long into arena with a volatile write, offset must come from allocateAligned and be a multiple of 8.
+     *
+     * @param offset position of the long.
+     * @param value  value to be put.
+     */
+    public void putLong(int offset, long value) {
+        Memory memory = chunk(offset);
+        UNSAFE.putLongVolatile(memory.base, address(memory, offset), value);
+    }
+
+    /**
+     * Get a long of arena with a volatile read, offset must come from allocateAligned and be a multiple of 8.
+     *
+     * @param offset position of the long.
+     * @return long in arena.
+     */
+    public long getLong(int offset) {
+        Memory memory = chunk(offset);
+        return UNSAFE.getLongVolatile(memory.base, address(memory, offset));
+    }
+
+    private Memory chunk(int offset) {
+        Memory memory = buf.get(offset >>> chunkShift);
+        if (memory == null) {
+            throw new IllegalStateException(closed ? "arena has been closed!" : "offset is not allocated!");
+        }
+        return memory;
+    }
+
+    private long address(Memory memory, int offset) {
+        return memory.address + (offset & chunkMask);
+    }
+
+    /**
+     * Release memory of this arena. Off-heap memory is freed at once, so nobody may read this arena any more,
+     * heap memory is left to the garbage collector.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int i = 0; i < buf.length(); i++) {
+            Memory memory = buf.getAndSet(i, null);
+            if (memory != null) {
+                memory.free();
+            }
+        }
+    }
+
     @Override
     public String toString() {
-        if (buf == null) {
+        if (closed) {
             return "null";
         }
         int iMax = offset.get() - 1;
@@ -137,11 +471,58 @@ public class Arena {
         StringBuilder b = new StringBuilder();
         b.append('[');
         for (int i = 0; ; i++) {
-            b.append(buf[i]);
+            b.append(buf.get(i >>> chunkShift) == null ? 0 : getByte(i));
             if (i == iMax) {
                 return b.append(']').toString();
             }
             b.append(", ");
         }
     }
+
+    /**
+     * Slab of a thread, [cursor, limit) is free for the owner thread only.
+     */
+    private static final class Slab {
+
+        private int cursor;
+
+        private int limit;
+    }
+
+    /**
+     * A piece of memory accessed by unsafe, base is the byte[] for heap memory and null for native memory,
+     * address is the offset of the first byte relative to base. A slice shares the memory of its owner and is never
+     * freed by itself.
+     */
+    private static final class Memory {
+
+        private final Object base;
+
+        private final long address;
+
+        private final boolean owner;
+
+        private Memory(Object base, long address, boolean owner) {
+            this.base = base;
+            this.address = address;
+            this.owner = owner;
+        }
+
+        static Memory allocate(int capacity, boolean offHeap) {
+            if (offHeap) {
+                return new Memory(null, UNSAFE.allocateMemory(capacity), true);
+            }
+            return new Memory(new byte[capacity], BYTE_ARRAY_BASE_OFFSET, true);
+        }
+
+        Memory slice(long from) {
+            return new Memory(base, address + from, false);
+        }
+
+        void free() {
+            if (owner && base == null) {
+                UNSAFE.freeMemory(address);
+            }
+        }
+    }
 }
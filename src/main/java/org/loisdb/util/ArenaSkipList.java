@@ -0,0 +1,647 @@
+package org.loisdb.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent skip list of binary keys and values whose nodes live in an arena. Every node is addressed by its int
+ * offset in the arena, nothing but the arena itself is allocated on the heap per memtable, so the garbage collector
+ * does not have to trace millions of small node objects.
+ * Layout of a node (aligned to 8 bytes):
+ * <pre>
+ * +-------------------------------+------------+-------------+-------------+----------------------+
+ * | value (offset &lt;&lt; 32 | size) 8B | keyOffset 4B | keySize 4B | height 4B | next[0..height-1] 4B |
+ * +-------------------------------+------------+-------------+-------------+----------------------+
+ * </pre>
+ * Key and value bytes are put into the arena separately. Offset 0 is used as nil, the head node is the first node
+ * allocated by this list, so no other node can ever be at offset 0.
+ * Towers are linked by compare-and-swap, nodes are never unlinked, a put of an existing key replaces its value.
+ * When the arena is full put throws the allocation exception of arena.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class ArenaSkipList {
+
+    /**
+     * The max height of a tower.
+     */
+    public static final int MAX_HEIGHT = 20;
+
+    /**
+     * A node will be promoted to next level with probability 1/4.
+     */
+    private static final LevelGenerator LEVEL_GENERATOR = new LevelGenerator(MAX_HEIGHT, 0.25);
+
+    /**
+     * Offset standing for no node.
+     */
+    private static final int NIL = 0;
+
+    private static final int VALUE_OFFSET = 0;
+
+    private static final int KEY_OFFSET = 8;
+
+    private static final int KEY_SIZE_OFFSET = 12;
+
+    private static final int HEIGHT_OFFSET = 16;
+
+    private static final int TOWER_OFFSET = 20;
+
+    /**
+     * arena which stores nodes, keys and values.
+     */
+    private final Arena arena;
+
+    /**
+     * offset of the head node.
+     */
+    private final int head;
+
+    /**
+     * Height of the highest tower ever linked, searches start from this level.
+     */
+    private final AtomicInteger height;
+
+    /**
+     * Num of keys.
+     */
+    private final LongAdder size;
+
+    /**
+     * comparator which orders keys.
+     */
+    private final KeyComparator comparator;
+
+    /**
+     * Constructor of arena skip list ordered by unsigned lexicographic order, the head node will be allocated from
+     * the arena immediately.
+     *
+     * @param arena arena which stores nodes, keys and values.
+     */
+    public ArenaSkipList(Arena arena) {
+        this(arena, BytewiseComparator.INSTANCE);
+    }
+
+    /**
+     * Constructor of arena skip list ordered by comparator, the head node will be allocated from the arena
+     * immediately.
+     *
+     * @param arena      arena which stores nodes, keys and values.
+     * @param comparator comparator which orders keys.
+     */
+    public ArenaSkipList(Arena arena, KeyComparator comparator) {
+        this.arena = arena;
+        this.comparator = comparator;
+        this.head = newNode(0, 0, 0, MAX_HEIGHT);
+        this.height = new AtomicInteger(1);
+        this.size = new LongAdder();
+    }
+
+    /**
+     * Return the arena of this skip list.
+     *
+     * @return the arena of this skip list
+     */
+    public Arena getArena() {
+        return arena;
+    }
+
+    /**
+     * Return the highest level of skip list.
+     *
+     * @return the height of skip list
+     */
+    public int height() {
+        return height.get();
+    }
+
+    /**
+     * Returns the number of keys in this list.
+     *
+     * @return the number of keys in this list
+     */
+    public int size() {
+        return (int) size.sum();
+    }
+
+    /**
+     * Checks if current skip list is empty.
+     *
+     * @return if current skip list is empty
+     */
+    public boolean isEmpty() {
+        return size.sum() == 0;
+    }
+
+    /**
+     * Return the comparator which orders keys.
+     *
+     * @return the comparator which orders keys
+     */
+    public KeyComparator getComparator() {
+        return comparator;
+    }
+
+    /**
+     * Put a key-value pair into skip list, if the key already exists its value will be replaced.
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(byte[] key, byte[] value) {
+        put(key, value, new Splice());
+    }
+
+    /**
+     * Put a key-value pair into skip list with the help of a splice, if the key already exists its value will be
+     * replaced. The splice remembers where the previous put of the same caller linked its node, if the key falls
+     * between the remembered nodes of some level, the search starts there instead of from the head. For sorted or
+     * mostly sorted keys the key falls right after the previous one on level-0, so a put costs amortized O(1)
+     * comparisons and allocates nothing but the arena space of the node.
+     * A splice must only be used by one thread at a time, and only with the skip list which created it.
+     *
+     * @param key    key
+     * @param value  value
+     * @param splice splice of the previous put, see {@link #newSplice()}
+     */
+    public void put(byte[] key, byte[] value, Splice splice) {
+        if (splice.owner() != this) {
+            throw new IllegalArgumentException("splice belongs to another skip list!");
+        }
+        Slice target = splice.target.set(key);
+        Slice scratch = splice.scratch;
+        int[] preds = splice.prev;
+        int[] succs = splice.next;
+        long valueSlot = encodeValue(arena.putBytes(value), value.length);
+
+        if (findSplice(target, splice)) {
+            arena.putLong(succs[0] + VALUE_OFFSET, valueSlot);
+            return;
+        }
+
+        int nodeHeight = randLevel();
+        int node = newNode(arena.putBytes(key), key.length, valueSlot, nodeHeight);
+        for (; ; ) {
+            arena.putInt(tower(node, 0), succs[0]);
+            if (arena.casInt(tower(preds[0], 0), succs[0], node)) {
+                break;
+            }
+            // other writers only link nodes after preds[0], so the search can go on from there.
+            findSpliceForLevel(target, preds[0], 0, splice);
+            if (succs[0] != NIL && compareKey(succs[0], target, scratch) == 0) {
+                // another writer linked the same key first, the key and node we allocated are wasted.
+                arena.putLong(succs[0] + VALUE_OFFSET, valueSlot);
+                return;
+            }
+        }
+        size.increment();
+
+        for (int i = 1; i < nodeHeight; i++) {
+            for (; ; ) {
+                arena.putInt(tower(node, i), succs[i]);
+                if (arena.casInt(tower(preds[i], i), succs[i], node)) {
+                    break;
+                }
+                findSpliceForLevel(target, preds[i], i, splice);
+            }
+        }
+        // the next key of a sorted stream comes right after this node.
+        for (int i = 0; i < nodeHeight; i++) {
+            preds[i] = node;
+        }
+
+        int cur;
+        while (nodeHeight > (cur = height.get()) && !height.compareAndSet(cur, nodeHeight)) {
+            // another writer raised the height, check again.
+        }
+    }
+
+    /**
+     * Create a splice for {@link #put(byte[], byte[], Splice)}.
+     *
+     * @return a new splice of this skip list
+     */
+    public Splice newSplice() {
+        return new Splice();
+    }
+
+    /**
+     * Get the value of a key.
+     *
+     * @param key key
+     * @return value of key if this skip list contains it, otherwise null
+     */
+    public byte[] get(byte[] key) {
+        Slice value = new Slice();
+        return get(new Slice(key), value) ? value.toBytes() : null;
+    }
+
+    /**
+     * Get the value of a key without copying it, value will view the bytes in arena.
+     *
+     * @param key   key
+     * @param value slice to be pointed at the value
+     * @return true if this skip list contains key
+     */
+    public boolean get(byte[] key, Slice value) {
+        return get(new Slice(key), value);
+    }
+
+    /**
+     * Get the value of a key without copying or allocating anything, value will view the bytes in arena.
+     *
+     * @param key   key
+     * @param value slice to be pointed at the value
+     * @return true if this skip list contains key
+     */
+    public boolean get(Slice key, Slice value) {
+        // value is free until the key is found, so it is used to view keys of nodes while searching.
+        int node = findGreaterOrEqual(key, value);
+        if (node == NIL || compareKey(node, key, value) != 0) {
+            return false;
+        }
+        long valueSlot = arena.getLong(node + VALUE_OFFSET);
+        arena.getSlice(valueOffset(valueSlot), valueSize(valueSlot), value);
+        return true;
+    }
+
+    /**
+     * Returns a cursor over this skip list, the cursor is not positioned until one of its seek methods is called.
+     *
+     * @return a cursor over this skip list
+     */
+    public Cursor cursor() {
+        return new Cursor(null, false, null, false);
+    }
+
+    /**
+     * Returns a cursor over the keys of this skip list between lower and upper, the cursor is not positioned until
+     * one of its seek methods is called. A null bound means unbounded.
+     *
+     * @param lower          lower bound
+     * @param lowerInclusive if lower itself is in range
+     * @param upper          upper bound
+     * @param upperInclusive if upper itself is in range
+     * @return a cursor over this skip list
+     */
+    public Cursor cursor(byte[] lower, boolean lowerInclusive, byte[] upper, boolean upperInclusive) {
+        return new Cursor(lower == null ? null : new Slice(lower), lowerInclusive,
+                upper == null ? null : new Slice(upper), upperInclusive);
+    }
+
+    private int newNode(int keyOffset, int keySize, long valueSlot, int nodeHeight) {
+        int node = arena.allocateAligned(TOWER_OFFSET + nodeHeight * Integer.BYTES);
+        arena.putLong(node + VALUE_OFFSET, valueSlot);
+        arena.putInt(node + KEY_OFFSET, keyOffset);
+        arena.putInt(node + KEY_SIZE_OFFSET, keySize);
+        arena.putInt(node + HEIGHT_OFFSET, nodeHeight);
+        for (int i = 0; i < nodeHeight; i++) {
+            arena.putInt(tower(node, i), NIL);
+        }
+        return node;
+    }
+
+    private static int tower(int node, int level) {
+        return node + TOWER_OFFSET + level * Integer.BYTES;
+    }
+
+    private int next(int node, int level) {
+        return arena.getInt(tower(node, level));
+    }
+
+    /**
+     * Find predecessors and successors of key on each level. prev[i] of splice will be the last node on level i
+     * whose key is less than key, next[i] the node following it.
+     * The lowest level where the remembered prev and next are still adjacent and bracket key is kept, levels below it
+     * are searched from its prev, if no level brackets key all levels are searched from the head.
+     *
+     * @return true if next[0] holds key
+     */
+    private boolean findSplice(Slice key, Splice splice) {
+        int[] prev = splice.prev;
+        int[] next = splice.next;
+        Slice scratch = splice.scratch;
+
+        int level = splice.valid ? 0 : MAX_HEIGHT;
+        for (; level < MAX_HEIGHT; level++) {
+            int p = prev[level];
+            int n = next[level];
+            if (next(p, level) == n
+                    && (p == head || compareKey(p, key, scratch) < 0)
+                    && (n == NIL || compareKey(n, key, scratch) >= 0)) {
+                break;
+            }
+        }
+        for (int i = level - 1; i >= 0; i--) {
+            findSpliceForLevel(key, prev[i + 1], i, splice);
+        }
+        splice.valid = true;
+        return next[0] != NIL && compareKey(next[0], key, scratch) == 0;
+    }
+
+    /**
+     * Search level for key starting from node before, whose key must be less than key.
+     */
+    private void findSpliceForLevel(Slice key, int before, int level, Splice splice) {
+        int pre = before;
+        int next = next(pre, level);
+        while (next != NIL && compareKey(next, key, splice.scratch) < 0) {
+            pre = next;
+            next = next(pre, level);
+        }
+        splice.prev[level] = pre;
+        splice.next[level] = next;
+    }
+
+    private int findGreaterOrEqual(Slice key, Slice scratch) {
+        int pre = head;
+        int next = NIL;
+        for (int i = height.get() - 1; i >= 0; i--) {
+            next = next(pre, i);
+            while (next != NIL && compareKey(next, key, scratch) < 0) {
+                pre = next;
+                next = next(pre, i);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Find the last node whose key is less than key, or less than or equal to key if orEqual is set.
+     *
+     * @return the node found, NIL if there is none
+     */
+    private int findLessThan(Slice key, boolean orEqual, Slice scratch) {
+        int pre = head;
+        for (int i = height.get() - 1; i >= 0; i--) {
+            int next = next(pre, i);
+            while (next != NIL) {
+                int cmp = compareKey(next, key, scratch);
+                if (cmp > 0 || (cmp == 0 && !orEqual)) {
+                    break;
+                }
+                pre = next;
+                next = next(pre, i);
+            }
+        }
+        return pre == head ? NIL : pre;
+    }
+
+    private int findLast() {
+        int pre = head;
+        for (int i = height.get() - 1; i >= 0; i--) {
+            int next = next(pre, i);
+            while (next != NIL) {
+                pre = next;
+                next = next(pre, i);
+            }
+        }
+        return pre == head ? NIL : pre;
+    }
+
+    /**
+     * Compare the key of node with key, scratch is pointed at the key of node.
+     */
+    private int compareKey(int node, Slice key, Slice scratch) {
+        return comparator.compare(nodeKey(node, scratch), key);
+    }
+
+    private Slice nodeKey(int node, Slice slice) {
+        return arena.getSlice(arena.getInt(node + KEY_OFFSET), arena.getInt(node + KEY_SIZE_OFFSET), slice);
+    }
+
+    private static long encodeValue(int offset, int size) {
+        return ((long) offset << 32) | (size & 0xffffffffL);
+    }
+
+    private static int valueOffset(long valueSlot) {
+        return (int) (valueSlot >>> 32);
+    }
+
+    private static int valueSize(long valueSlot) {
+        return (int) valueSlot;
+    }
+
+    /**
+     * Calculate the height of a new tower.
+     *
+     * @return the height of a new tower, at least 1
+     */
+    private int randLevel() {
+        return LEVEL_GENERATOR.nextLevel();
+    }
+
+    /**
+     * Splice remembers the predecessor and successor of the previous put on each level, see
+     * {@link #put(byte[], byte[], Splice)}.
+     */
+    public final class Splice {
+
+        /**
+         * prev[i] is the last node on level i before the key of previous put, prev[MAX_HEIGHT] is always head.
+         */
+        private final int[] prev = new int[MAX_HEIGHT + 1];
+
+        /**
+         * next[i] is the node after prev[i] on level i, next[MAX_HEIGHT] is always NIL.
+         */
+        private final int[] next = new int[MAX_HEIGHT + 1];
+
+        /**
+         * slice reused to view the key to be put.
+         */
+        private final Slice target = new Slice();
+
+        /**
+         * slice reused to view keys of nodes while searching.
+         */
+        private final Slice scratch = new Slice();
+
+        /**
+         * if prev and next have been filled by a put.
+         */
+        private boolean valid;
+
+        private Splice() {
+            prev[MAX_HEIGHT] = head;
+            next[MAX_HEIGHT] = NIL;
+        }
+
+        private ArenaSkipList owner() {
+            return ArenaSkipList.this;
+        }
+    }
+
+    /**
+     * A cursor over the skip list in key order, optionally limited by a lower and an upper bound. Every seek descends
+     * the express lanes from the top, so positioning costs O(logN). Moving forward follows level-0, moving backward
+     * searches for the last key less than the current one, since nodes have no backward pointers.
+     * It is weakly consistent, keys linked after the cursor passed their position are not seen.
+     * A prefix scan is a seek to the prefix followed by next while the key starts with the prefix (prefix scans need
+     * a comparator which keeps keys of the same prefix together, like the bytewise comparator does).
+     */
+    public class Cursor implements SeekableIterator {
+
+        /**
+         * node the cursor is positioned at, NIL if the cursor is not valid.
+         */
+        private int node = NIL;
+
+        /**
+         * slice reused to view keys.
+         */
+        private final Slice key = new Slice();
+
+        /**
+         * slice reused to view values.
+         */
+        private final Slice value = new Slice();
+
+        /**
+         * slice reused to view keys met during a search, so a target viewing the current key, like the one returned
+         * by {@link #key()}, is not overwritten by the search.
+         */
+        private final Slice scratch = new Slice();
+
+        /**
+         * lower bound, null means unbounded.
+         */
+        private final Slice lower;
+
+        private final boolean lowerInclusive;
+
+        /**
+         * upper bound, null means unbounded.
+         */
+        private final Slice upper;
+
+        private final boolean upperInclusive;
+
+        Cursor(Slice lower, boolean lowerInclusive, Slice upper, boolean upperInclusive) {
+            this.lower = lower;
+            this.lowerInclusive = lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upperInclusive;
+        }
+
+        @Override
+        public void seekToFirst() {
+            if (lower == null) {
+                node = ArenaSkipList.this.next(head, 0);
+            } else {
+                node = lowerInclusive ? findGreaterOrEqual(lower, scratch) : findGreater(lower);
+            }
+            checkUpper();
+        }
+
+        @Override
+        public void seekToLast() {
+            node = upper == null ? findLast() : findLessThan(upper, upperInclusive, scratch);
+            checkLower();
+        }
+
+        /**
+         * Position at the first key greater than or equal to target.
+         *
+         * @param target target key
+         */
+        public void seek(byte[] target) {
+            seek(new Slice(target));
+        }
+
+        @Override
+        public void seek(Slice target) {
+            if (belowLower(target)) {
+                seekToFirst();
+                return;
+            }
+            node = findGreaterOrEqual(target, scratch);
+            checkUpper();
+        }
+
+        /**
+         * Position at the last key less than or equal to target.
+         *
+         * @param target target key
+         */
+        public void seekForPrev(byte[] target) {
+            seekForPrev(new Slice(target));
+        }
+
+        @Override
+        public void seekForPrev(Slice target) {
+            if (aboveUpper(target)) {
+                seekToLast();
+                return;
+            }
+            node = findLessThan(target, true, scratch);
+            checkLower();
+        }
+
+        @Override
+        public boolean valid() {
+            return node != NIL;
+        }
+
+        @Override
+        public void next() {
+            node = ArenaSkipList.this.next(node, 0);
+            checkUpper();
+        }
+
+        @Override
+        public void prev() {
+            // key views the current key while scratch views keys met during the search.
+            node = findLessThan(nodeKey(node, key), false, scratch);
+            checkLower();
+        }
+
+        @Override
+        public Slice key() {
+            return nodeKey(node, key);
+        }
+
+        @Override
+        public Slice value() {
+            long valueSlot = arena.getLong(node + VALUE_OFFSET);
+            return arena.getSlice(valueOffset(valueSlot), valueSize(valueSlot), value);
+        }
+
+        private int findGreater(Slice target) {
+            int found = findGreaterOrEqual(target, scratch);
+            while (found != NIL && compareKey(found, target, scratch) == 0) {
+                found = ArenaSkipList.this.next(found, 0);
+            }
+            return found;
+        }
+
+        private boolean belowLower(Slice target) {
+            if (lower == null) {
+                return false;
+            }
+            int cmp = comparator.compare(target, lower);
+            return lowerInclusive ? cmp < 0 : cmp <= 0;
+        }
+
+        private boolean aboveUpper(Slice target) {
+            if (upper == null) {
+                return false;
+            }
+            int cmp = comparator.compare(target, upper);
+            return upperInclusive ? cmp > 0 : cmp >= 0;
+        }
+
+        private void checkUpper() {
+            if (node != NIL && aboveUpper(nodeKey(node, key))) {
+                node = NIL;
+            }
+        }
+
+        private void checkLower() {
+            if (node != NIL && belowLower(nodeKey(node, key))) {
+                node = NIL;
+            }
+        }
+    }
+}
@@ -2,22 +2,44 @@ package org.loisdb.util;
 
 import org.loisdb.constant.MathConstants;
 
+import java.util.BitSet;
+
 /**
  * LoisDB use bloom filter to judge sst contains a specify key. It is easy to judge weather a sst contains a key while
  * that specify key is out of sst's range. But if it is in the range, this bloom will help a lot.
  * Bloom filter contains a bitmap, for a specify key we calculate a serial hash codes and mark those code in bitmap.
  * Consider we have n element to store and the capacity of bitmap is m, the num of hash functions we used is k,
  * and the false positives we can stand is p, we can get that k = (m/n)In2 and m = -nInp/(In2)^2.
+ * Binary keys are hashed by {@link XxHash64} and int keys are mixed to 64 bits, the two halves of a hash drive the
+ * probes by double hashing. The bitmap is a long[] and a probe is mapped to a bit by a multiply and a shift, so a probe
+ * costs no division.
+ * A bloom filter can be serialized with {@link #toBytes()}, every sst keeps the bloom filter of its keys in a filter
+ * block.
  *
  * @author zhanglongxiang
  * @since 2022/7/1
  */
-public class Bloom {
+public class Bloom implements Filter {
+
+    /**
+     * log2 of num of bits of a word.
+     */
+    private static final int WORD_SHIFT = 6;
 
     /**
-     * container of bloom filter.
+     * num of keys whose probes are interleaved by a batched lookup.
      */
-    private final byte[] filter;
+    private static final int BATCH = 32;
+
+    /**
+     * container of bloom filter, bit i is bit {@code i & 63} of word {@code i >>> 6}.
+     */
+    private final long[] filter;
+
+    /**
+     * num of bits of filter.
+     */
+    private final int numBits;
 
     /**
      * num of hash function.
@@ -35,8 +57,8 @@ public class Bloom {
         double bizPerKey = calcBitsPerKey(numEntries, fp);
         numHash = calcNumHash(bizPerKey);
         int filterSize = Math.max((int) (bizPerKey * numEntries), MathConstants.SIXTY_FOUR);
-        int byteSize = (filterSize + MathConstants.SEVEN) >> MathConstants.THREE;
-        filter = new byte[byteSize];
+        filter = new long[(filterSize + MathConstants.SIXTY_FOUR - MathConstants.ONE) >>> WORD_SHIFT];
+        numBits = filter.length << WORD_SHIFT;
     }
 
     /**
@@ -50,26 +72,82 @@ public class Bloom {
     public Bloom(double fp, int numEntries, int[] keys) {
         this(fp, numEntries);
         for (int key : keys) {
-            int delta = key >> MathConstants.SEVENTEEN | key << MathConstants.FIFTEEN;
-            for (int j = 0; j < numHash; j++) {
-                filter[key % (filter.length << MathConstants.THREE) >> MathConstants.THREE]
-                        |= MathConstants.ONE << (key % (filter.length << MathConstants.THREE) % MathConstants.EIGHT);
-                key += delta;
-            }
+            insert(key);
         }
     }
 
+    private Bloom(long[] filter, byte numHash) {
+        this.filter = filter;
+        this.numBits = filter.length << WORD_SHIFT;
+        this.numHash = numHash;
+    }
+
+    /**
+     * Restore a bloom filter serialized by {@link #toBytes()}.
+     *
+     * @param bytes serialized bloom filter
+     * @return the bloom filter
+     */
+    public static Bloom fromBytes(byte[] bytes) {
+        if (bytes.length <= MathConstants.EIGHT || (bytes.length - MathConstants.ONE) % MathConstants.EIGHT != 0) {
+            throw new IllegalArgumentException("bad size of bloom filter " + bytes.length);
+        }
+        byte numHash = bytes[bytes.length - 1];
+        if (numHash < MathConstants.ONE || numHash > MathConstants.THIRTY) {
+            throw new IllegalArgumentException("bad num of hash function " + numHash);
+        }
+        return new Bloom(BloomBits.fromBytes(bytes), numHash);
+    }
+
+    /**
+     * Serialize this bloom filter: the words of bitmap in big endian followed by one byte of the num of hash function.
+     *
+     * @return serialized bloom filter
+     */
+    @Override
+    public byte[] toBytes() {
+        return BloomBits.toBytes(filter, numHash);
+    }
+
     /**
      * insert a key to this bloom filter.
      *
      * @param key key
      */
     public void insert(int key) {
-        int delta = (MathConstants.SEVENTEEN | key << MathConstants.FIFTEEN) & Integer.MAX_VALUE;
+        insertHash(BloomBits.mix(key));
+    }
+
+    /**
+     * insert a binary key to this bloom filter.
+     *
+     * @param key key
+     */
+    public void insert(byte[] key) {
+        insertHash(XxHash64.hash(key));
+    }
+
+    /**
+     * insert a binary key to this bloom filter.
+     *
+     * @param key key
+     */
+    public void insert(Slice key) {
+        insertHash(XxHash64.hash(key));
+    }
+
+    /**
+     * insert a key by its {@link XxHash64} hash, so a caller which keeps hashes does not need to keep keys.
+     *
+     * @param hash 64-bit hash of key
+     */
+    public void insertHash(long hash) {
+        int h = (int) hash;
+        int delta = (int) (hash >>> 32);
         for (int j = 0; j < numHash; j++) {
-            filter[key % (filter.length << MathConstants.THREE) >> MathConstants.THREE]
-                    |= MathConstants.ONE << (key % (filter.length << MathConstants.THREE) % MathConstants.EIGHT);
-            key = (key + delta) & Integer.MAX_VALUE;
+            int bit = reduce(h);
+            filter[bit >>> WORD_SHIFT] |= 1L << bit;
+            h += delta;
         }
     }
 
@@ -80,21 +158,116 @@ public class Bloom {
      * @return if this bloom filter contains a specify key
      */
     public boolean mayContainsKey(int key) {
-        if (filter == null || filter.length < MathConstants.ONE) {
-            return false;
-        }
+        return mayContainsHash(BloomBits.mix(key));
+    }
+
+    /**
+     * Judge if this bloom filter contains a specify binary key.
+     *
+     * @param key key
+     * @return if this bloom filter contains a specify key
+     */
+    public boolean mayContainsKey(byte[] key) {
+        return mayContainsHash(XxHash64.hash(key));
+    }
 
-        int delta = (key >> MathConstants.SEVENTEEN | key << MathConstants.FIFTEEN) & Integer.MAX_VALUE;
+    /**
+     * Judge if this bloom filter contains a specify binary key.
+     *
+     * @param key key
+     * @return if this bloom filter contains a specify key
+     */
+    @Override
+    public boolean mayContainsKey(Slice key) {
+        return mayContainsHash(XxHash64.hash(key));
+    }
+
+    /**
+     * Judge if this bloom filter contains a key by its {@link XxHash64} hash. The low and the high half of hash are
+     * two independent hashes h1 and h2, the i-th probe is h1 + i * h2, which is as good as numHash independent hashes
+     * (Kirsch and Mitzenmacher) at the cost of one.
+     *
+     * @param hash 64-bit hash of key
+     * @return if this bloom filter contains a specify key
+     */
+    @Override
+    public boolean mayContainsHash(long hash) {
+        int h = (int) hash;
+        int delta = (int) (hash >>> 32);
         for (int j = 0; j < numHash; j++) {
-            if ((filter[key % (filter.length << MathConstants.THREE) >> MathConstants.THREE]
-                    & MathConstants.ONE << (key % (filter.length << MathConstants.THREE) % MathConstants.EIGHT)) == 0) {
+            int bit = reduce(h);
+            if ((filter[bit >>> WORD_SHIFT] & 1L << bit) == 0) {
                 return false;
             }
-            key = (key + delta) & Integer.MAX_VALUE;
+            h += delta;
         }
         return true;
     }
 
+    /**
+     * Judge which of keys this bloom filter may contain, bit i of results is set if it may contain keys[i].
+     * All keys are hashed first, then the probes of a batch of keys are resolved round by round: the i-th probe of
+     * every key still alive is issued before any (i + 1)-th probe. Loads of different keys do not depend on each other,
+     * so their cache misses overlap instead of being paid one key after another.
+     *
+     * @param keys    keys
+     * @param results cleared and set to the keys this bloom filter may contain
+     */
+    public void mayContainKeys(byte[][] keys, BitSet results) {
+        long[] hashes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = XxHash64.hash(keys[i]);
+        }
+        mayContainHashes(hashes, keys.length, results);
+    }
+
+    /**
+     * Judge which of the first count keys this bloom filter may contain by their {@link XxHash64} hashes, bit i of
+     * results is set if it may contain the key of hashes[i].
+     *
+     * @param hashes  64-bit hashes of keys
+     * @param count   num of keys
+     * @param results cleared and set to the keys this bloom filter may contain
+     */
+    public void mayContainHashes(long[] hashes, int count, BitSet results) {
+        results.clear();
+        int[] alive = new int[BATCH];
+        int[] probes = new int[BATCH];
+        int[] deltas = new int[BATCH];
+        for (int start = 0; start < count; start += BATCH) {
+            int size = Math.min(BATCH, count - start);
+            for (int k = 0; k < size; k++) {
+                long hash = hashes[start + k];
+                alive[k] = start + k;
+                probes[k] = (int) hash;
+                deltas[k] = (int) (hash >>> 32);
+            }
+            for (int j = 0; j < numHash && size > 0; j++) {
+                int survivors = 0;
+                for (int k = 0; k < size; k++) {
+                    int bit = reduce(probes[k]);
+                    // a probe hits about half of the time, so the key is kept without a branch to mispredict.
+                    alive[survivors] = alive[k];
+                    probes[survivors] = probes[k] + deltas[k];
+                    deltas[survivors] = deltas[k];
+                    survivors += (int) (filter[bit >>> WORD_SHIFT] >>> bit) & 1;
+                }
+                size = survivors;
+            }
+            for (int k = 0; k < size; k++) {
+                results.set(alive[k]);
+            }
+        }
+    }
+
+    /**
+     * Map a 32-bit hash to a bit of filter by a multiply and a shift (fastrange of Lemire), it is as uniform as a
+     * modulo but costs no division.
+     */
+    private int reduce(int h) {
+        return (int) (((h & 0xffffffffL) * numBits) >>> 32);
+    }
+
     /**
      * calculate bits per key (m/n)
      */
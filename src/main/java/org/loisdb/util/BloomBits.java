@@ -0,0 +1,72 @@
+package org.loisdb.util;
+
+import org.loisdb.constant.MathConstants;
+
+/**
+ * Helpers shared by bloom filters: the serialized form of a bitmap of long words and the mixing of int keys, so
+ * {@link Bloom}, {@link BlockedBloom} and {@link ConcurrentBloom} read and write the same layout and hash int keys
+ * the same way.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+final class BloomBits {
+
+    private BloomBits() {
+    }
+
+    /**
+     * Serialize words in big endian followed by one byte of trailer.
+     *
+     * @param words   words of a bitmap
+     * @param trailer the last byte, the num of hash function or of probes of the filter
+     * @return serialized bitmap
+     */
+    static byte[] toBytes(long[] words, byte trailer) {
+        byte[] bytes = new byte[(words.length << MathConstants.THREE) + MathConstants.ONE];
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            for (int j = MathConstants.SEVEN; j >= 0; j--) {
+                bytes[(i << MathConstants.THREE) + j] = (byte) word;
+                word >>>= MathConstants.EIGHT;
+            }
+        }
+        bytes[bytes.length - 1] = trailer;
+        return bytes;
+    }
+
+    /**
+     * Restore the words of a bitmap serialized by {@link #toBytes(long[], byte)}, the trailer is left to the caller.
+     *
+     * @param bytes serialized bitmap, its length must be a multiple of 8 plus 1
+     * @return words of the bitmap
+     */
+    static long[] fromBytes(byte[] bytes) {
+        long[] words = new long[(bytes.length - MathConstants.ONE) >>> MathConstants.THREE];
+        for (int i = 0; i < words.length; i++) {
+            long word = 0;
+            for (int j = 0; j < MathConstants.EIGHT; j++) {
+                word = word << MathConstants.EIGHT | bytes[(i << MathConstants.THREE) + j] & 0xff;
+            }
+            words[i] = word;
+        }
+        return words;
+    }
+
+    /**
+     * Spread an int key to 64 bits with the finalizer of murmur3, so both halves of the result are well mixed even
+     * for small or sequential keys.
+     *
+     * @param key int key
+     * @return 64-bit hash of key
+     */
+    static long mix(int key) {
+        long h = key & 0xffffffffL;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
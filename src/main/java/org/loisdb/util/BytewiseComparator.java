@@ -0,0 +1,55 @@
+package org.loisdb.util;
+
+import java.nio.ByteOrder;
+
+import static org.loisdb.util.UnsafeAccess.UNSAFE;
+
+/**
+ * The default comparator, which orders keys by unsigned lexicographic order. Keys are compared 8 bytes at a time:
+ * 8 bytes read as a big-endian long keep the lexicographic order when compared as unsigned longs, so only the tail
+ * shorter than 8 bytes is compared byte by byte.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public final class BytewiseComparator implements KeyComparator {
+
+    /**
+     * The only instance of bytewise comparator.
+     */
+    public static final BytewiseComparator INSTANCE = new BytewiseComparator();
+
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private BytewiseComparator() {
+    }
+
+    @Override
+    public int compare(Slice a, Slice b) {
+        Object baseA = a.base();
+        Object baseB = b.base();
+        long addressA = a.address();
+        long addressB = b.address();
+        int len = Math.min(a.length(), b.length());
+
+        int i = 0;
+        for (; i + Long.BYTES <= len; i += Long.BYTES) {
+            long wordA = UNSAFE.getLong(baseA, addressA + i);
+            long wordB = UNSAFE.getLong(baseB, addressB + i);
+            if (wordA != wordB) {
+                if (LITTLE_ENDIAN) {
+                    wordA = Long.reverseBytes(wordA);
+                    wordB = Long.reverseBytes(wordB);
+                }
+                return Long.compareUnsigned(wordA, wordB);
+            }
+        }
+        for (; i < len; i++) {
+            int cmp = (UNSAFE.getByte(baseA, addressA + i) & 0xff) - (UNSAFE.getByte(baseB, addressB + i) & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return a.length() - b.length();
+    }
+}
@@ -0,0 +1,115 @@
+package org.loisdb.util;
+
+import org.loisdb.constant.MathConstants;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bloom filter which many writer threads can insert into while readers query it, for the keys of a memtable.
+ * The bitmap is an AtomicLongArray, a bit is set by a compare-and-swap of its word, so concurrent inserts into the
+ * same word never lose bits, and a reader which has seen an entry written after its insert sees all of its bits.
+ * Probes are those of {@link Bloom}: double hashing over the two halves of the {@link XxHash64} hash of a key, mapped
+ * to bits by a multiply and a shift, so {@link #toBytes()} can be read back by {@link Bloom#fromBytes(byte[])}.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class ConcurrentBloom implements Filter {
+
+    /**
+     * log2 of num of bits of a word.
+     */
+    private static final int WORD_SHIFT = 6;
+
+    private final AtomicLongArray filter;
+
+    private final int numBits;
+
+    private final int numHash;
+
+    /**
+     * Constructor of concurrent bloom filter.
+     *
+     * @param numBits num of bits, rounded up to a multiple of 64
+     * @param numHash num of hash function
+     */
+    public ConcurrentBloom(int numBits, int numHash) {
+        if (numBits <= 0 || numHash < MathConstants.ONE || numHash > MathConstants.THIRTY) {
+            throw new IllegalArgumentException("numBits " + numBits + ", numHash " + numHash);
+        }
+        this.filter = new AtomicLongArray((int) ((numBits + 63L) >>> WORD_SHIFT));
+        this.numBits = filter.length() << WORD_SHIFT;
+        this.numHash = numHash;
+    }
+
+    /**
+     * insert a binary key, it may be called by many threads at the same time.
+     *
+     * @param key key
+     */
+    public void insert(byte[] key) {
+        insertHash(XxHash64.hash(key));
+    }
+
+    /**
+     * insert a key by its {@link XxHash64} hash, it may be called by many threads at the same time.
+     *
+     * @param hash 64-bit hash of key
+     */
+    public void insertHash(long hash) {
+        int h = (int) hash;
+        int delta = (int) (hash >>> 32);
+        for (int j = 0; j < numHash; j++) {
+            int bit = reduce(h);
+            int i = bit >>> WORD_SHIFT;
+            long mask = 1L << bit;
+            long word = filter.get(i);
+            // most bits of a loaded filter are set already, a read saves the write of the cache line.
+            while ((word & mask) == 0 && !filter.compareAndSet(i, word, word | mask)) {
+                word = filter.get(i);
+            }
+            h += delta;
+        }
+    }
+
+    @Override
+    public boolean mayContainsHash(long hash) {
+        int h = (int) hash;
+        int delta = (int) (hash >>> 32);
+        for (int j = 0; j < numHash; j++) {
+            int bit = reduce(h);
+            if ((filter.get(bit >>> WORD_SHIFT) & 1L << bit) == 0) {
+                return false;
+            }
+            h += delta;
+        }
+        return true;
+    }
+
+    /**
+     * Serialize a snapshot of this filter in the format of {@link Bloom#toBytes()}.
+     *
+     * @return serialized filter
+     */
+    @Override
+    public byte[] toBytes() {
+        long[] words = new long[filter.length()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = filter.get(i);
+        }
+        return BloomBits.toBytes(words, (byte) numHash);
+    }
+
+    /**
+     * Return num of bytes of the bitmap.
+     *
+     * @return num of bytes of the bitmap
+     */
+    public int sizeInBytes() {
+        return filter.length() << MathConstants.THREE;
+    }
+
+    private int reduce(int h) {
+        return (int) (((h & 0xffffffffL) * numBits) >>> 32);
+    }
+}
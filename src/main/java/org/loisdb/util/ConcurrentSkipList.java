@@ -0,0 +1,462 @@
+package org.loisdb.util;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free skip list which can be shared by many writer threads and any number of reader threads.
+ * Nodes are linked with compare-and-swap on each level and are never physically unlinked, removing a value only marks
+ * its node as a tombstone, and adding the same value again revives the node. Because no node ever leaves the list,
+ * a reader can walk the list at any time without locks and without seeing a half removed node.
+ * Nodes are ordered by score, nodes with the same score are kept together and are told apart by equals.
+ *
+ * @param <E> template type
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class ConcurrentSkipList<E> extends AbstractCollection<E> implements SkipList<E> {
+
+    /**
+     * The max height of a tower.
+     */
+    private static final int MAX_LEVEL = 24;
+
+    /**
+     * A node will be promoted to next level with probability 1/4.
+     */
+    private static final LevelGenerator LEVEL_GENERATOR = new LevelGenerator(MAX_LEVEL, 0.25);
+
+    /**
+     * The head of this skip list, it is as high as MAX_LEVEL and scored Integer.MIN_VALUE.
+     */
+    private final Node<E> head;
+
+    /**
+     * Height of the highest tower ever linked, searches start from this level.
+     */
+    private final AtomicInteger level;
+
+    /**
+     * Num of live (not tombstoned) values.
+     */
+    private final LongAdder size;
+
+    /**
+     * Constructor of concurrent skip list, init the head with the max height.
+     */
+    public ConcurrentSkipList() {
+        head = new Node<>(null, Integer.MIN_VALUE, MAX_LEVEL);
+        level = new AtomicInteger(1);
+        size = new LongAdder();
+    }
+
+    /**
+     * Return the highest level of skip list.
+     *
+     * @return the height of skip list
+     */
+    public int height() {
+        return level.get();
+    }
+
+    /**
+     * Returns the number of live elements in this list. Under concurrent modification it is only an estimate.
+     *
+     * @return the number of live elements in this list
+     */
+    @Override
+    public int size() {
+        return (int) size.sum();
+    }
+
+    /**
+     * Checks if current skip list is empty.
+     *
+     * @return if current skip list is empty
+     */
+    @Override
+    public boolean isEmpty() {
+        return size.sum() == 0;
+    }
+
+    /**
+     * Returns true if this skip list contains a live element equals to o, the score of o is it's hashcode.
+     *
+     * @param o element whose presence in this set is to be tested
+     *
+     * @return if this skip list contains the specified element
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        try {
+            return findVal((E) o) != null;
+        } catch (ClassCastException | NullPointerException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Insert a value into skip list, the score of this val with be set to it's hashcode.
+     *
+     * @param val value to be added
+     *
+     * @return true if this skip list did not already contain a live value equals to val
+     */
+    @Override
+    public boolean add(E val) {
+        return add(val, val.hashCode());
+    }
+
+    /**
+     * Insert a value with specified score into skip list. If an equal value with the same score is already linked,
+     * no new node is linked, a tombstoned node is revived instead.
+     *
+     * @param val   value to be added
+     * @param score score of this value
+     *
+     * @return true if this skip list did not already contain a live value equals to val
+     */
+    @Override
+    public boolean add(E val, int score) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node<E>[] preds = new Node[MAX_LEVEL];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node<E>[] succs = new Node[MAX_LEVEL];
+        return add(val, score, preds, succs);
+    }
+
+    /**
+     * Insert a batch of values with specified scores into skip list, scores[i] is the score of vals[i].
+     * The batch is sorted by score once, then each value is searched from the predecessors left by the previous one
+     * instead of from the head. Nodes are never unlinked, so the predecessors stay valid fingers however other
+     * writers change the list meanwhile.
+     *
+     * @param vals   values to be added
+     * @param scores scores of values
+     *
+     * @return true if this skip list did not already contain a live value equals to some value of the batch
+     */
+    @Override
+    public boolean addAll(E[] vals, int[] scores) {
+        int[] order = SkipLists.sortByScore(vals, scores);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node<E>[] preds = new Node[MAX_LEVEL];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node<E>[] succs = new Node[MAX_LEVEL];
+        boolean changed = false;
+        for (int i : order) {
+            changed |= add(vals[i], scores[i], preds, succs);
+        }
+        return changed;
+    }
+
+    /**
+     * Insert a value with specified score, preds may hold the predecessors of a value scored less than score.
+     */
+    private boolean add(E val, int score, Node<E>[] preds, Node<E>[] succs) {
+        if (val == null) {
+            throw new NullPointerException();
+        }
+        Node<E> newNode = null;
+        int height = randLevel();
+
+        for (; ; ) {
+            Node<E> found = findSplice(val, score, height, preds, succs);
+            if (found != null) {
+                if (found.revive()) {
+                    size.increment();
+                    return true;
+                }
+                return false;
+            }
+
+            if (newNode == null) {
+                newNode = new Node<>(val, score, height);
+            }
+            newNode.next.lazySet(0, succs[0]);
+            // once level-0 is linked the value is visible, upper levels are only express lanes.
+            if (preds[0].casNext(0, succs[0], newNode)) {
+                break;
+            }
+        }
+        size.increment();
+
+        for (int i = 1; i < height; i++) {
+            for (; ; ) {
+                newNode.next.set(i, succs[i]);
+                if (preds[i].casNext(i, succs[i], newNode)) {
+                    break;
+                }
+                findSplice(val, score, height, preds, succs);
+            }
+        }
+
+        int cur;
+        while (height > (cur = level.get()) && !level.compareAndSet(cur, height)) {
+            // another writer raised the level, check again.
+        }
+        return true;
+    }
+
+    /**
+     * Return the stored value equals to val (score of this value is it's hashcode) if skip list contains it,
+     * otherwise return null.
+     *
+     * @param val target value
+     *
+     * @return the stored value if skip list contains val, otherwise return null
+     */
+    @Override
+    public E findVal(E val) {
+        return findVal(val, val.hashCode());
+    }
+
+    /**
+     * Return the stored value equals to val with specified score if skip list contains it, otherwise return null.
+     *
+     * @param val   target value
+     * @param score score of val
+     *
+     * @return the stored value if skip list contains val, otherwise return null
+     */
+    @Override
+    public E findVal(E val, int score) {
+        Node<E> node = findNode(val, score);
+        return node == null || node.isDeleted() ? null : node.val;
+    }
+
+    /**
+     * Remove specified val with score of it's hashcode from this skip list by marking it as a tombstone.
+     *
+     * @param o specified val to be removed
+     *
+     * @return true if skip list contains this val and remove successfully, otherwise false
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        try {
+            return remove((E) o, o.hashCode());
+        } catch (ClassCastException | NullPointerException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Remove specified val with score from this skip list by marking it as a tombstone. The node stays linked,
+     * so concurrent readers and writers are never affected by a remove.
+     *
+     * @param val   specified val to be removed
+     * @param score score of val
+     *
+     * @return true if skip list contains this val and remove successfully, otherwise false
+     */
+    @Override
+    public boolean remove(E val, int score) {
+        Node<E> node = findNode(val, score);
+        if (node != null && node.markDeleted()) {
+            size.decrement();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the live elements in this skip list, ordered by score.
+     *
+     * @return an Iterator over the elements in this skip list
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new SkipListItr();
+    }
+
+    /**
+     * This function is used to show the whole structure of this skip list, it will show live nodes in each level,
+     * usually this function is used to debug.
+     *
+     * @return the whole structure of this skip list
+     */
+    @Override
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        for (int i = level.get() - 1; i >= 0; i--) {
+            for (Node<E> node = head.next.get(i); node != null; node = node.next.get(i)) {
+                if (!node.isDeleted()) {
+                    description.append(node.val).append(' ');
+                }
+            }
+            description.append('\n');
+        }
+        return description.toString().trim();
+    }
+
+    /**
+     * Find predecessors and successors of a value on each level below the height of the list or of the tower to be
+     * linked, whichever is higher. preds[i] is the last node on level i scored less than score, succs[i] is the node
+     * following it, levels above are set to head and null. Non-null preds[i] on entry must be scored less than score,
+     * the search on level i goes on from it if it is further than the predecessor found on the level above.
+     *
+     * @return the node of an equal value with the same score if there is one, otherwise null
+     */
+    private Node<E> findSplice(E val, int score, int height, Node<E>[] preds, Node<E>[] succs) {
+        int top = Math.max(level.get(), height);
+        for (int i = top; i < MAX_LEVEL; i++) {
+            preds[i] = head;
+            succs[i] = null;
+        }
+        Node<E> pre = head;
+        for (int i = top - 1; i >= 0; i--) {
+            if (preds[i] != null && preds[i].score > pre.score) {
+                pre = preds[i];
+            }
+            Node<E> next = pre.next.get(i);
+            while (next != null && next.score < score) {
+                pre = next;
+                next = pre.next.get(i);
+            }
+            preds[i] = pre;
+            succs[i] = next;
+        }
+        return scanEqualScores(succs[0], val, score);
+    }
+
+    private Node<E> findNode(E val, int score) {
+        Node<E> pre = head;
+        for (int i = level.get() - 1; i >= 0; i--) {
+            Node<E> next = pre.next.get(i);
+            while (next != null && next.score < score) {
+                pre = next;
+                next = pre.next.get(i);
+            }
+        }
+        return scanEqualScores(pre.next.get(0), val, score);
+    }
+
+    private Node<E> scanEqualScores(Node<E> node, E val, int score) {
+        while (node != null && node.score == score) {
+            if (val.equals(node.val)) {
+                return node;
+            }
+            node = node.next.get(0);
+        }
+        return null;
+    }
+
+    /**
+     * Calculate the height of a new tower.
+     *
+     * @return the height of a new tower, at least 1
+     */
+    private int randLevel() {
+        return LEVEL_GENERATOR.nextLevel();
+    }
+
+    /**
+     * Node of concurrent skip list, next pointers of every level are updated by compare-and-swap,
+     * deleted is the tombstone mark.
+     *
+     * @param <T> template of skip list element
+     */
+    private static final class Node<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Node> DELETED =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "deleted");
+
+        /**
+         * Value stored in skip list.
+         */
+        private final T val;
+
+        /**
+         * Score of value, used to compare the node.
+         */
+        private final int score;
+
+        /**
+         * The next node of current node in each level.
+         */
+        private final AtomicReferenceArray<Node<T>> next;
+
+        /**
+         * 1 if this node has been removed, otherwise 0.
+         */
+        private volatile int deleted;
+
+        Node(T val, int score, int height) {
+            this.val = val;
+            this.score = score;
+            this.next = new AtomicReferenceArray<>(height);
+        }
+
+        boolean casNext(int i, Node<T> expect, Node<T> update) {
+            return next.compareAndSet(i, expect, update);
+        }
+
+        boolean isDeleted() {
+            return deleted == 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        boolean markDeleted() {
+            return DELETED.compareAndSet(this, 0, 1);
+        }
+
+        @SuppressWarnings("unchecked")
+        boolean revive() {
+            return DELETED.compareAndSet(this, 1, 0);
+        }
+    }
+
+    private class SkipListItr implements Iterator<E> {
+
+        Node<E> next;
+
+        Node<E> lastReturned;
+
+        SkipListItr() {
+            next = skipDeleted(head.next.get(0));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = skipDeleted(next.next.get(0));
+            return lastReturned.val;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (lastReturned.markDeleted()) {
+                size.decrement();
+            }
+            lastReturned = null;
+        }
+
+        private Node<E> skipDeleted(Node<E> node) {
+            while (node != null && node.isDeleted()) {
+                node = node.next.get(0);
+            }
+            return node;
+        }
+    }
+}
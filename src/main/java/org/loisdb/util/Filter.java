@@ -0,0 +1,37 @@
+package org.loisdb.util;
+
+/**
+ * An interface of approximate membership filter, it answers if a key may be in a set without false negatives and
+ * with a few false positives. Keys are given by their {@link XxHash64} hash, so a writer which keeps hashes does not
+ * need to keep keys.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public interface Filter {
+
+    /**
+     * Judge if this filter contains a key by its {@link XxHash64} hash.
+     *
+     * @param hash 64-bit hash of key
+     * @return false if the key is surely not in the set
+     */
+    boolean mayContainsHash(long hash);
+
+    /**
+     * Judge if this filter contains a specify binary key.
+     *
+     * @param key key
+     * @return false if the key is surely not in the set
+     */
+    default boolean mayContainsKey(Slice key) {
+        return mayContainsHash(XxHash64.hash(key));
+    }
+
+    /**
+     * Serialize this filter, it is restored by the fromBytes of its class.
+     *
+     * @return serialized filter
+     */
+    byte[] toBytes();
+}
@@ -0,0 +1,19 @@
+package org.loisdb.util;
+
+/**
+ * An interface of comparator which orders binary keys of memtable and sst.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public interface KeyComparator {
+
+    /**
+     * Compare two keys.
+     *
+     * @param a a key
+     * @param b another key
+     * @return a negative integer, zero, or a positive integer as a is less than, equal to, or greater than b
+     */
+    int compare(Slice a, Slice b);
+}
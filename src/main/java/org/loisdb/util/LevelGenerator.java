@@ -0,0 +1,85 @@
+package org.loisdb.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generator of random tower heights for skip lists. A height is derived from a single draw of a thread local
+ * xorshift generator, so choosing a height allocates nothing and takes a few nanoseconds.
+ * If the probability p is 1/2^k, every k trailing zero bits of the draw raise the tower by one level, which is
+ * exactly probability p per level. Otherwise the draw is compared with the precomputed thresholds p^i.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public final class LevelGenerator {
+
+    /**
+     * xorshift64* state of each thread.
+     */
+    private static final ThreadLocal<long[]> STATE = ThreadLocal.withInitial(
+            () -> new long[]{ThreadLocalRandom.current().nextLong() | 1});
+
+    /**
+     * Max height of a tower.
+     */
+    private final int maxLevel;
+
+    /**
+     * k if probability is 1/2^k, otherwise 0.
+     */
+    private final int bitsPerLevel;
+
+    /**
+     * thresholds[i] is p^(i+1) scaled to [0, 2^63), a tower is higher than i+1 if the draw is below it.
+     */
+    private final long[] thresholds;
+
+    /**
+     * Constructor of level generator.
+     *
+     * @param maxLevel    max height of a tower
+     * @param probability probability that a node appears in the next level
+     */
+    public LevelGenerator(int maxLevel, double probability) {
+        if (maxLevel < 1 || probability <= 0 || probability >= 1) {
+            throw new IllegalArgumentException("maxLevel " + maxLevel + ", probability " + probability);
+        }
+        this.maxLevel = maxLevel;
+        double bits = -Math.log(probability) / Math.log(2);
+        this.bitsPerLevel = Math.abs(bits - Math.rint(bits)) < 1e-9 ? (int) Math.rint(bits) : 0;
+        this.thresholds = new long[maxLevel];
+        double p = probability;
+        for (int i = 0; i < maxLevel; i++) {
+            thresholds[i] = (long) (p * Long.MAX_VALUE);
+            p *= probability;
+        }
+    }
+
+    /**
+     * Draw the height of a new tower.
+     *
+     * @return height from 1 to maxLevel
+     */
+    public int nextLevel() {
+        long x = nextRandom();
+        if (bitsPerLevel > 0) {
+            return 1 + Math.min(Long.numberOfTrailingZeros(x) / bitsPerLevel, maxLevel - 1);
+        }
+        long u = x >>> 1;
+        int level = 1;
+        while (level < maxLevel && u < thresholds[level - 1]) {
+            level++;
+        }
+        return level;
+    }
+
+    private static long nextRandom() {
+        long[] state = STATE.get();
+        long x = state[0];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        state[0] = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+}
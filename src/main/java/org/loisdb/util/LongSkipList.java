@@ -0,0 +1,423 @@
+package org.loisdb.util;
+
+import java.util.Arrays;
+
+/**
+ * A skip list keyed by primitive long, for data keyed by 64-bit ids. Nothing is boxed and no object is created per
+ * node: a node is only an index into parallel arrays, keys[n] is its key, vals[n] its value, next[n] its successor on
+ * level-0, and the links of the levels above are packed in one int[] starting at towers[n]. A scan on level-0 only
+ * reads keys[] and next[], which are dense primitive arrays.
+ * Node 0 is the head, it is never the successor of another node, so a link of 0 also marks the end of a level.
+ * Slots of removed nodes are kept in a free list per tower height and reused by later adds of the same height.
+ * Like SimpleSkipList it is not thread safe.
+ *
+ * @param <V> type of values
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class LongSkipList<V> {
+
+    /**
+     * Default max height of a tower.
+     */
+    public static final int DEFAULT_MAX_LEVEL = 32;
+
+    /**
+     * Default probability that a node appears in the next level.
+     */
+    public static final double DEFAULT_PROBABILITY = 0.25;
+
+    /**
+     * Num of node slots allocated at first.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int HEAD = 0;
+
+    private static final int NIL = 0;
+
+    /**
+     * Generator of tower heights.
+     */
+    private final LevelGenerator levelGenerator;
+
+    /**
+     * keys[n] is the key of node n.
+     */
+    private long[] keys;
+
+    /**
+     * vals[n] is the value of node n.
+     */
+    private Object[] vals;
+
+    /**
+     * next[n] is the successor of node n on level-0.
+     */
+    private int[] next;
+
+    /**
+     * heights[n] is the height of the tower of node n.
+     */
+    private int[] heights;
+
+    /**
+     * towers[n] is the position in links of the successor of node n on level-1, successors on higher levels follow.
+     */
+    private int[] towers;
+
+    /**
+     * Successors of all nodes on level-1 and above.
+     */
+    private int[] links;
+
+    /**
+     * Num of node slots ever used, including the head.
+     */
+    private int nodeCount;
+
+    /**
+     * Num of ints of links ever used.
+     */
+    private int linkCount;
+
+    /**
+     * freeNodes[h] is a removed node of height h, NIL if there is none, removed nodes of the same height are chained
+     * through next[].
+     */
+    private final int[] freeNodes;
+
+    /**
+     * Predecessors found by the last search, reused by every search.
+     */
+    private final int[] preds;
+
+    /**
+     * Size of skip list.
+     */
+    private int size;
+
+    /**
+     * Height of skip list, it is the height of the highest tower ever inserted.
+     */
+    private int level;
+
+    /**
+     * Constructor of long skip list, towers will be at most DEFAULT_MAX_LEVEL high and a node appears in the next
+     * level with probability DEFAULT_PROBABILITY.
+     */
+    public LongSkipList() {
+        this(DEFAULT_MAX_LEVEL);
+    }
+
+    /**
+     * Constructor of long skip list, towers will be at most maxLevel high.
+     *
+     * @param maxLevel max height of a tower
+     */
+    public LongSkipList(int maxLevel) {
+        this(maxLevel, DEFAULT_PROBABILITY);
+    }
+
+    /**
+     * Constructor of long skip list.
+     *
+     * @param maxLevel    max height of a tower
+     * @param probability probability that a node appears in the next level
+     */
+    public LongSkipList(int maxLevel, double probability) {
+        this.levelGenerator = new LevelGenerator(maxLevel, probability);
+        this.keys = new long[INITIAL_CAPACITY];
+        this.vals = new Object[INITIAL_CAPACITY];
+        this.next = new int[INITIAL_CAPACITY];
+        this.heights = new int[INITIAL_CAPACITY];
+        this.towers = new int[INITIAL_CAPACITY];
+        this.links = new int[INITIAL_CAPACITY];
+        this.freeNodes = new int[maxLevel + 1];
+        this.preds = new int[maxLevel];
+        this.level = 1;
+        newNode(maxLevel);
+    }
+
+    /**
+     * Return the highest level of skip list.
+     *
+     * @return the height of skip list
+     */
+    public int height() {
+        return level;
+    }
+
+    /**
+     * Returns the number of keys in this list.
+     *
+     * @return the number of keys in this list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if current skip list is empty.
+     *
+     * @return if current skip list is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Insert a key with its value into skip list, if the key already exists its value will be replaced.
+     *
+     * @param key key
+     * @param val value of key
+     * @return true if skip list did not contain key
+     */
+    public boolean add(long key, V val) {
+        int found = findPreds(key);
+        if (found != NIL) {
+            vals[found] = val;
+            return false;
+        }
+
+        int height = levelGenerator.nextLevel();
+        while (level < height) {
+            preds[level++] = HEAD;
+        }
+        int node = newNode(height);
+        keys[node] = key;
+        vals[node] = val;
+        next[node] = next[preds[0]];
+        next[preds[0]] = node;
+        for (int i = 1; i < height; i++) {
+            int pred = link(preds[i], i);
+            links[link(node, i)] = links[pred];
+            links[pred] = node;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Return the value of key if skip list contains key, otherwise return null.
+     *
+     * @param key target key
+     * @return the value of key, null if skip list does not contain key
+     */
+    @SuppressWarnings("unchecked")
+    public V find(long key) {
+        int node = findNode(key);
+        return node == NIL ? null : (V) vals[node];
+    }
+
+    /**
+     * Check if skip list contains key.
+     *
+     * @param key target key
+     * @return if skip list contains key
+     */
+    public boolean contains(long key) {
+        return findNode(key) != NIL;
+    }
+
+    /**
+     * Remove key from this skip list, the slot of its node will be reused by a later add.
+     *
+     * @param key key to be removed
+     * @return true if skip list contains this key and remove successfully, otherwise false
+     */
+    public boolean remove(long key) {
+        int node = findPreds(key);
+        if (node == NIL) {
+            return false;
+        }
+        next[preds[0]] = next[node];
+        for (int i = 1; i < heights[node]; i++) {
+            links[link(preds[i], i)] = links[link(node, i)];
+        }
+        vals[node] = null;
+        next[node] = freeNodes[heights[node]];
+        freeNodes[heights[node]] = node;
+        size--;
+        return true;
+    }
+
+    /**
+     * Create a cursor over the skip list in key order. A cursor is invalidated by any remove.
+     *
+     * @return a new cursor, not positioned at any key
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * This function is used to show the whole structure of this skip list, it will show keys in each level,
+     * usually this function is used to debug.
+     *
+     * @return the whole structure of this skip list
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        for (int i = level - 1; i >= 0; i--) {
+            for (int node = successor(HEAD, i); node != NIL; node = successor(node, i)) {
+                description.append(keys[node]).append(' ');
+            }
+            description.append('\n');
+        }
+        return description.toString().trim();
+    }
+
+    /**
+     * Find the last node before key on each level and keep them in preds.
+     *
+     * @return the node of key if skip list contains key, otherwise NIL
+     */
+    private int findPreds(long key) {
+        int pre = HEAD;
+        for (int i = level - 1; i >= 0; i--) {
+            int node = successor(pre, i);
+            while (node != NIL && keys[node] < key) {
+                pre = node;
+                node = successor(pre, i);
+            }
+            preds[i] = pre;
+        }
+        int node = next[preds[0]];
+        return node != NIL && keys[node] == key ? node : NIL;
+    }
+
+    private int findNode(long key) {
+        int node = findGreaterOrEqual(key);
+        return node != NIL && keys[node] == key ? node : NIL;
+    }
+
+    private int findGreaterOrEqual(long key) {
+        int pre = HEAD;
+        for (int i = level - 1; i > 0; i--) {
+            int node = links[link(pre, i)];
+            while (node != NIL && keys[node] < key) {
+                pre = node;
+                node = links[link(pre, i)];
+            }
+        }
+        int node = next[pre];
+        while (node != NIL && keys[node] < key) {
+            node = next[node];
+        }
+        return node;
+    }
+
+    private int successor(int node, int level) {
+        return level == 0 ? next[node] : links[link(node, level)];
+    }
+
+    /**
+     * Position in links of the successor of node on level, level must be at least 1.
+     */
+    private int link(int node, int level) {
+        return towers[node] + level - 1;
+    }
+
+    /**
+     * Take a node slot with a tower of height, from the free list if a removed node of the same height exists.
+     */
+    private int newNode(int height) {
+        int node = freeNodes[height];
+        if (node != NIL) {
+            freeNodes[height] = next[node];
+            return node;
+        }
+        if (nodeCount == keys.length) {
+            int capacity = keys.length + (keys.length >> 1);
+            keys = Arrays.copyOf(keys, capacity);
+            vals = Arrays.copyOf(vals, capacity);
+            next = Arrays.copyOf(next, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            towers = Arrays.copyOf(towers, capacity);
+        }
+        if (linkCount + height - 1 > links.length) {
+            links = Arrays.copyOf(links, Math.max(links.length + (links.length >> 1), linkCount + height - 1));
+        }
+        node = nodeCount++;
+        heights[node] = height;
+        towers[node] = linkCount;
+        linkCount += height - 1;
+        return node;
+    }
+
+    /**
+     * A cursor over the skip list in key order.
+     */
+    public class Cursor {
+
+        /**
+         * node the cursor is positioned at, NIL if the cursor is not valid.
+         */
+        private int node = NIL;
+
+        Cursor() {
+        }
+
+        /**
+         * Check if the cursor is positioned at a key.
+         *
+         * @return if the cursor is positioned at a key
+         */
+        public boolean valid() {
+            return node != NIL;
+        }
+
+        /**
+         * Position at the first key.
+         */
+        public void seekToFirst() {
+            node = next[HEAD];
+        }
+
+        /**
+         * Position at the first key greater than or equal to target.
+         *
+         * @param target target key
+         */
+        public void seek(long target) {
+            node = findGreaterOrEqual(target);
+        }
+
+        /**
+         * Move to the next key, the cursor must be valid.
+         */
+        public void next() {
+            checkValid();
+            node = LongSkipList.this.next[node];
+        }
+
+        /**
+         * Return the key the cursor is positioned at, the cursor must be valid.
+         *
+         * @return current key
+         */
+        public long key() {
+            checkValid();
+            return keys[node];
+        }
+
+        /**
+         * Return the value the cursor is positioned at, the cursor must be valid.
+         *
+         * @return current value
+         */
+        @SuppressWarnings("unchecked")
+        public V value() {
+            checkValid();
+            return (V) vals[node];
+        }
+
+        private void checkValid() {
+            if (node == NIL) {
+                throw new IllegalStateException("cursor is not valid!");
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.loisdb.util;
+
+import java.util.Arrays;
+
+/**
+ * PrefixExtractor maps a key to its prefix, for example the tenant|entity of a key tenant|entity|ts. Filters of
+ * tables and memtables index the prefixes of their keys as well, so a prefix scan can skip a table or a memtable
+ * whose filter rules the prefix out. Prefixes are hashed with a seed of their own, so a prefix never collides with a
+ * whole key of the same bytes.
+ * The name of an extractor is stored with the filters built with it, a filter built with another extractor is not
+ * used for prefixes.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public interface PrefixExtractor {
+
+    /**
+     * seed of the hash of a prefix.
+     */
+    long PREFIX_SEED = 0x7072656669785f31L;
+
+    /**
+     * Return the name of this extractor, extractors of the same name must map keys the same way.
+     *
+     * @return the name of this extractor
+     */
+    String name();
+
+    /**
+     * Check if key has a prefix.
+     *
+     * @param key key
+     * @return if key has a prefix
+     */
+    boolean inDomain(Slice key);
+
+    /**
+     * Point result at the prefix of key, key must be in domain.
+     *
+     * @param key    key
+     * @param result slice to be pointed at the prefix, it views the bytes of key
+     * @return result
+     */
+    Slice prefix(Slice key, Slice result);
+
+    /**
+     * Hash a prefix for filters.
+     *
+     * @param prefix prefix
+     * @return 64-bit hash of prefix
+     */
+    static long hashPrefix(Slice prefix) {
+        return XxHash64.hash(prefix, PREFIX_SEED);
+    }
+
+    /**
+     * Return an extractor taking the first length bytes of a key, keys shorter than length have no prefix.
+     *
+     * @param length length of prefix
+     * @return the extractor
+     */
+    static PrefixExtractor fixed(int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("length " + length);
+        }
+        return new PrefixExtractor() {
+            @Override
+            public String name() {
+                return "fixed:" + length;
+            }
+
+            @Override
+            public boolean inDomain(Slice key) {
+                return key.length() >= length;
+            }
+
+            @Override
+            public Slice prefix(Slice key, Slice result) {
+                return result.set(key.base(), key.address(), length);
+            }
+        };
+    }
+
+    /**
+     * Return an extractor taking a key up to and including its count-th delimiter, keys with less delimiters have no
+     * prefix. For keys tenant|entity|ts, delimited((byte) '|', 2) extracts tenant|entity|.
+     *
+     * @param delimiter delimiter of the parts of a key
+     * @param count     num of delimiters of a prefix
+     * @return the extractor
+     */
+    static PrefixExtractor delimited(byte delimiter, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count " + count);
+        }
+        return new PrefixExtractor() {
+            @Override
+            public String name() {
+                return "delimited:" + (delimiter & 0xff) + ":" + count;
+            }
+
+            @Override
+            public boolean inDomain(Slice key) {
+                return end(key) >= 0;
+            }
+
+            @Override
+            public Slice prefix(Slice key, Slice result) {
+                int end = end(key);
+                if (end < 0) {
+                    throw new IllegalArgumentException("key " + Arrays.toString(key.toBytes()) + " has no prefix");
+                }
+                return result.set(key.base(), key.address(), end);
+            }
+
+            /**
+             * Length of the prefix of key, -1 if key has less than count delimiters.
+             */
+            private int end(Slice key) {
+                int found = 0;
+                for (int i = 0; i < key.length(); i++) {
+                    if (key.getByte(i) == delimiter && ++found == count) {
+                        return i + 1;
+                    }
+                }
+                return -1;
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package org.loisdb.util;
+
+/**
+ * An interface of iterator over sorted key-value pairs, which can be positioned at any key and moved in both
+ * directions. Memtables and ssts expose their data through it, so that scans over several of them can be merged.
+ * Key and value returned are only valid until the iterator moves.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public interface SeekableIterator {
+
+    /**
+     * Check if the iterator is positioned at a key.
+     *
+     * @return if the iterator is positioned at a key
+     */
+    boolean valid();
+
+    /**
+     * Position at the first key.
+     */
+    void seekToFirst();
+
+    /**
+     * Position at the last key.
+     */
+    void seekToLast();
+
+    /**
+     * Position at the first key greater than or equal to target.
+     *
+     * @param target target key
+     */
+    void seek(Slice target);
+
+    /**
+     * Position at the last key less than or equal to target.
+     *
+     * @param target target key
+     */
+    void seekForPrev(Slice target);
+
+    /**
+     * Move to the next key, the iterator must be valid.
+     */
+    void next();
+
+    /**
+     * Move to the previous key, the iterator must be valid.
+     */
+    void prev();
+
+    /**
+     * Return key of current position, the iterator must be valid.
+     *
+     * @return key of current position
+     */
+    Slice key();
+
+    /**
+     * Return value of current position, the iterator must be valid.
+     *
+     * @return value of current position
+     */
+    Slice value();
+}
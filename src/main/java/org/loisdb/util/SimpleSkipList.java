@@ -2,10 +2,11 @@ package org.loisdb.util;
 
 import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Random;
 
 /**
  * Skip list is a probabilistic data structure that allows O(logN) search complexity as well as O(logN) insertion
@@ -23,16 +24,31 @@ import java.util.Random;
  */
 public class SimpleSkipList<E> extends AbstractCollection<E> implements SkipList<E> {
 
+    /**
+     * Default max height of a tower.
+     */
+    public static final int DEFAULT_MAX_LEVEL = 32;
+
+    /**
+     * Default probability that a node appears in the next level.
+     */
+    public static final double DEFAULT_PROBABILITY = 0.25;
+
     /**
      * Size of skip list.
      */
     private int size;
 
     /**
-     * Height of skip list.
+     * Height of skip list, it is the height of the highest tower ever inserted.
      */
     private int level;
 
+    /**
+     * Generator of tower heights.
+     */
+    private final LevelGenerator levelGenerator;
+
     /**
      * The head of this skip list, it scored Integer.MIN_VALUE.
      */
@@ -44,24 +60,47 @@ public class SimpleSkipList<E> extends AbstractCollection<E> implements SkipList
     private final SkipListNode<E> tail;
 
     /**
-     * Constructor of skip list, init the head, and the tail, in order to reduce the expansion times,
-     * the level of this skip list will be set at 3.
+     * Constructor of skip list, init the head, and the tail, the skip list starts 1 level high, towers will be at
+     * most DEFAULT_MAX_LEVEL high and a node appears in the next level with probability DEFAULT_PROBABILITY.
      */
     public SimpleSkipList() {
-        this(3);
+        this(1, DEFAULT_MAX_LEVEL, DEFAULT_PROBABILITY);
     }
 
     /**
-     * Constructor of skip list, init the head, and the tail, this constructor will set level as input.
+     * Constructor of skip list, init the head, and the tail, this constructor will set level as the initial height,
+     * towers will be at most DEFAULT_MAX_LEVEL high. Use {@link #SimpleSkipList(int, double)} to set another max
+     * height of towers.
      *
-     * @param level level for initialization
+     * @param level level for initialization, at most DEFAULT_MAX_LEVEL
      */
     public SimpleSkipList(int level) {
+        this(level, DEFAULT_MAX_LEVEL, DEFAULT_PROBABILITY);
+    }
+
+    /**
+     * Constructor of skip list, init the head, and the tail. The skip list is never rebuilt, it only grows higher
+     * when a tower higher than all before is inserted, the height of each tower is random: a node appears in level
+     * i+1 with probability p if it appears in level i, so inserting costs O(logN) without spikes.
+     * p is usually 1/2, 1/4 or 1/e, the last one gives the smallest expected search cost.
+     *
+     * @param maxLevel    max height of a tower
+     * @param probability probability that a node appears in the next level
+     */
+    public SimpleSkipList(int maxLevel, double probability) {
+        this(1, maxLevel, probability);
+    }
+
+    private SimpleSkipList(int level, int maxLevel, double probability) {
+        if (level < 1 || level > maxLevel) {
+            throw new IllegalArgumentException("level " + level + ", maxLevel " + maxLevel);
+        }
+        this.levelGenerator = new LevelGenerator(maxLevel, probability);
         this.level = level;
         head = new SkipListNode<>(null, Integer.MIN_VALUE);
         head.setLevel(new ArrayList<>());
         tail = new SkipListNode<>(null, Integer.MAX_VALUE);
-        for (int i = 0; i < this.level; i++) {
+        for (int i = 0; i < level; i++) {
             head.getLevel().add(tail);
         }
     }
@@ -141,6 +180,63 @@ public class SimpleSkipList<E> extends AbstractCollection<E> implements SkipList
         return true;
     }
 
+    /**
+     * Insert a batch of values with specified scores into skip list, scores[i] is the score of vals[i].
+     * The batch is sorted by score once, then merged into the skip list in a single pass: the predecessors of a value
+     * on each level are kept as fingers, the next value is searched from them instead of from the head, so a batch
+     * of k values costs O(klog(N/k)) instead of O(klogN).
+     *
+     * @param vals   values to be added
+     * @param scores scores of values
+     *
+     * @return true if the batch is not empty
+     */
+    @Override
+    public boolean addAll(E[] vals, int[] scores) {
+        int[] order = SkipLists.sortByScore(vals, scores);
+        if (order.length == 0) {
+            return false;
+        }
+        int[] heights = new int[order.length];
+        for (int k = 0; k < order.length; k++) {
+            heights[k] = randLevel();
+            while (level <= heights[k]) {
+                head.getLevel().add(tail);
+                level++;
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        SkipListNode<E>[] preNodes = new SkipListNode[level];
+        Arrays.fill(preNodes, head);
+        for (int k = 0; k < order.length; k++) {
+            SkipListNode<E> newNode = new SkipListNode<>(vals[order[k]], scores[order[k]]);
+            SkipListNode<E> pre = head;
+            for (int i = level - 1; i >= 0; i--) {
+                // the finger of this level and the predecessor found on the level above are both before newNode,
+                // go on from whichever is further.
+                if (preNodes[i].compareTo(pre) > 0) {
+                    pre = preNodes[i];
+                }
+                SkipListNode<E> node = pre.getLevel().get(i);
+                while (node != tail && node.compareTo(newNode) < 0) {
+                    pre = node;
+                    node = node.getLevel().get(i);
+                }
+                preNodes[i] = pre;
+            }
+
+            newNode.setLevel(new ArrayList<>(heights[k] + 1));
+            for (int i = 0; i <= heights[k]; i++) {
+                newNode.getLevel().add(preNodes[i].getLevel().get(i));
+                preNodes[i].getLevel().set(i, newNode);
+                preNodes[i] = newNode;
+            }
+            size++;
+        }
+        return true;
+    }
+
     /**
      * Find the value in skip list, if this skip list contains the value return the value, if not return null.
      * A search for a target element begins at the head element in the top list, and proceeds horizontally until the
@@ -275,10 +371,14 @@ public class SimpleSkipList<E> extends AbstractCollection<E> implements SkipList
     }
 
     protected void add(SkipListNode<E> newNode) {
-        newNode.setLevel(new ArrayList<>(level));
-        List<SkipListNode<E>> preNodes = getAllPreNodes(newNode);
-
         int tempHighestLevel = randLevel();
+        while (level <= tempHighestLevel) {
+            head.getLevel().add(tail);
+            level++;
+        }
+
+        newNode.setLevel(new ArrayList<>(tempHighestLevel + 1));
+        List<SkipListNode<E>> preNodes = getAllPreNodes(newNode);
 
         // Adding specified node from level_0 to level_tempHighestLevel
         for (int i = 0; i <= tempHighestLevel; i++) {
@@ -288,10 +388,6 @@ public class SimpleSkipList<E> extends AbstractCollection<E> implements SkipList
             preNode.getLevel().set(i, newNode);
         }
         size++;
-
-        if ((size - 1) >> (level + 1) > 0) {
-            resize();
-        }
     }
 
     protected E findVal(SkipListNode<E> target) {
@@ -376,42 +472,13 @@ public class SimpleSkipList<E> extends AbstractCollection<E> implements SkipList
         return preNodes;
     }
 
-    /**
-     * This function is used to increase the level of skip list.
-     * In some add cases, the element of skip list is so larger so that current level
-     * guarantee the time complexity of find and add method.
-     */
-    private void resize() {
-        SkipListNode<E> node = head;
-        SkipListNode<E> curTopNode = head;
-        long counter = 0;
-        short filter = 1;
-        while (curTopNode != tail) {
-            if ((counter & filter) == filter) {
-                node.getLevel().add(curTopNode);
-                node = curTopNode;
-            }
-            counter++;
-            curTopNode = curTopNode.getLevel().get(level - 1);
-        }
-        node.getLevel().add(tail);
-        level++;
-    }
-
     /**
      * Calculate the highest level of current node.
      *
      * @return the highest level of current node
      */
     private int randLevel() {
-        Random r = new Random();
-        int i = 0;
-        for (; i < height() - 1; i++) {
-            if (r.nextBoolean()) {
-                return i;
-            }
-        }
-        return i;
+        return levelGenerator.nextLevel() - 1;
     }
 
     /**
@@ -555,6 +622,8 @@ public class SimpleSkipList<E> extends AbstractCollection<E> implements SkipList
 
         SkipListNode<E> next;
 
+        SkipListNode<E> lastReturned;
+
         SkipListItr(SkipListNode<E> head, SkipListNode<E> tail) {
             this.tail = tail;
             this.head = head;
@@ -568,14 +637,21 @@ public class SimpleSkipList<E> extends AbstractCollection<E> implements SkipList
 
         @Override
         public E next() {
-            E val = next.getVal();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
             next = next.getLevel().get(0);
-            return val;
+            return lastReturned.getVal();
         }
 
         @Override
         public void remove() {
-            SimpleSkipList.this.remove(next);
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            SimpleSkipList.this.remove(lastReturned);
+            lastReturned = null;
         }
     }
 }
\ No newline at end of file
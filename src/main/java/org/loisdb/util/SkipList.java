@@ -19,6 +19,26 @@ public interface SkipList<E> extends Collection<E> {
      */
     boolean add(E val, int score);
 
+    /**
+     * Insert a batch of values with specified scores into skip list, scores[i] is the score of vals[i].
+     * Implementations may sort the batch once and merge it into the skip list in one pass, searching for each value
+     * from where the previous one was inserted instead of from the head.
+     *
+     * @param vals   values to be added
+     * @param scores scores of values
+     * @return true if skip list changed
+     */
+    default boolean addAll(E[] vals, int[] scores) {
+        if (vals.length != scores.length) {
+            throw new IllegalArgumentException("num of values and scores differ!");
+        }
+        boolean changed = false;
+        for (int i = 0; i < vals.length; i++) {
+            changed |= add(vals[i], scores[i]);
+        }
+        return changed;
+    }
+
     /**
      * Remove specified val with score from this skip list,
      * It will return true if skip list contains this val and remove successfully,
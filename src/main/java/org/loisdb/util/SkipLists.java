@@ -0,0 +1,39 @@
+package org.loisdb.util;
+
+import java.util.Arrays;
+
+/**
+ * Helpers shared by skip list implementations.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+final class SkipLists {
+
+    private SkipLists() {
+    }
+
+    /**
+     * Sort a batch by score. Each score is packed with its index into a long, so sorting the longs orders the batch
+     * by score without boxing, and values of the same score keep their order in the batch.
+     *
+     * @param vals   values of the batch
+     * @param scores scores of the batch, scores[i] is the score of vals[i]
+     * @return indexes of the batch in ascending order of score
+     */
+    static int[] sortByScore(Object[] vals, int[] scores) {
+        if (vals.length != scores.length) {
+            throw new IllegalArgumentException("num of values and scores differ!");
+        }
+        long[] packed = new long[scores.length];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = (long) scores[i] << 32 | i;
+        }
+        Arrays.sort(packed);
+        int[] order = new int[packed.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+}
@@ -0,0 +1,245 @@
+package org.loisdb.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.loisdb.util.UnsafeAccess.BYTE_ARRAY_BASE_OFFSET;
+import static org.loisdb.util.UnsafeAccess.UNSAFE;
+
+/**
+ * Slice is a view of a run of bytes, either in a byte[] or in the memory of an arena. Nothing is copied when a slice
+ * is created, and a slice can be pointed at other bytes again and again, so the read path of memtable does not need
+ * to allocate anything. The bytes seen through a slice are only valid as long as the memory under it, a slice of an
+ * off-heap arena must not be used after the arena is closed.
+ * A slice is mutable and not thread safe, copy it with toBytes if it must outlive the memory or be shared.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public final class Slice implements Comparable<Slice> {
+
+    /**
+     * size of scratch buffer used to write off-heap bytes to a stream.
+     */
+    private static final int WRITE_BUFFER_SIZE = 4096;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * byte[] holding the bytes, or null if the bytes are in native memory.
+     */
+    private Object base;
+
+    /**
+     * address of the first byte relative to base.
+     */
+    private long address;
+
+    /**
+     * num of bytes.
+     */
+    private int length;
+
+    /**
+     * Constructor of an empty slice.
+     */
+    public Slice() {
+        set(EMPTY);
+    }
+
+    /**
+     * Constructor of a slice over the whole bytes.
+     *
+     * @param bytes bytes to be viewed.
+     */
+    public Slice(byte[] bytes) {
+        set(bytes);
+    }
+
+    /**
+     * Point this slice at the whole bytes.
+     *
+     * @param bytes bytes to be viewed.
+     * @return this slice
+     */
+    public Slice set(byte[] bytes) {
+        return set(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Point this slice at a part of bytes.
+     *
+     * @param bytes  bytes to be viewed.
+     * @param offset the start of the part.
+     * @param length size of the part.
+     * @return this slice
+     */
+    public Slice set(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length);
+        }
+        return set(bytes, BYTE_ARRAY_BASE_OFFSET + offset, length);
+    }
+
+    /**
+     * Point this slice at memory accessed by unsafe.
+     */
+    Slice set(Object base, long address, int length) {
+        this.base = base;
+        this.address = address;
+        this.length = length;
+        return this;
+    }
+
+    Object base() {
+        return base;
+    }
+
+    long address() {
+        return address;
+    }
+
+    /**
+     * Return num of bytes of this slice.
+     *
+     * @return num of bytes of this slice
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Drop the first n bytes from this slice.
+     *
+     * @param n num of bytes to be dropped, from 0 to length.
+     * @return this slice
+     */
+    public Slice removePrefix(int n) {
+        if (n < 0 || n > length) {
+            throw new IndexOutOfBoundsException("n " + n + ", length " + length);
+        }
+        address += n;
+        length -= n;
+        return this;
+    }
+
+    /**
+     * Get a byte of this slice.
+     *
+     * @param index position of the byte, from 0 to length - 1.
+     * @return byte at index
+     */
+    public byte getByte(int index) {
+        checkIndex(index, 1);
+        return UNSAFE.getByte(base, address + index);
+    }
+
+    /**
+     * Copy bytes of this slice to dst.
+     *
+     * @param dst       destination.
+     * @param dstOffset the start of destination.
+     */
+    public void copyTo(byte[] dst, int dstOffset) {
+        if (dstOffset < 0 || dstOffset + length > dst.length) {
+            throw new IndexOutOfBoundsException("dstOffset " + dstOffset + ", length " + length);
+        }
+        UNSAFE.copyMemory(base, address, dst, BYTE_ARRAY_BASE_OFFSET + dstOffset, length);
+    }
+
+    /**
+     * Copy bytes of this slice to a new byte[].
+     *
+     * @return copy of bytes
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[length];
+        copyTo(bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Write bytes of this slice to out. Bytes in a byte[] are written directly, bytes in native memory go through a
+     * small scratch buffer.
+     *
+     * @param out output stream.
+     * @throws IOException if out fails.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (base instanceof byte[]) {
+            out.write((byte[]) base, (int) (address - BYTE_ARRAY_BASE_OFFSET), length);
+            return;
+        }
+        byte[] buffer = new byte[Math.min(length, WRITE_BUFFER_SIZE)];
+        for (int written = 0; written < length; written += buffer.length) {
+            int n = Math.min(buffer.length, length - written);
+            UNSAFE.copyMemory(base, address + written, buffer, BYTE_ARRAY_BASE_OFFSET, n);
+            out.write(buffer, 0, n);
+        }
+    }
+
+    /**
+     * Check if this slice starts with prefix.
+     *
+     * @param prefix prefix
+     * @return if this slice starts with prefix
+     */
+    public boolean startsWith(Slice prefix) {
+        if (prefix.length > length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (UNSAFE.getByte(base, address + i) != UNSAFE.getByte(prefix.base, prefix.address + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compare with another slice by unsigned lexicographic order.
+     *
+     * @param o the slice to be compared.
+     * @return a negative integer, zero, or a positive integer as this slice is less than, equal to, or greater than o
+     */
+    @Override
+    public int compareTo(Slice o) {
+        return BytewiseComparator.INSTANCE.compare(this, o);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Slice && length == ((Slice) o).length && compareTo((Slice) o) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + UNSAFE.getByte(base, address + i);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        b.append('[');
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                b.append(", ");
+            }
+            b.append(UNSAFE.getByte(base, address + i));
+        }
+        return b.append(']').toString();
+    }
+
+    private void checkIndex(int index, int size) {
+        if (index < 0 || index + size > length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.loisdb.util;
+
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+
+/**
+ * Holder of sun.misc.Unsafe. Arena uses it to read, write and compare-and-swap ints and longs at arbitrary offsets of
+ * its memory, which plain byte[] accesses can not do atomically.
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+final class UnsafeAccess {
+
+    /**
+     * The unsafe instance.
+     */
+    static final Unsafe UNSAFE;
+
+    /**
+     * Offset of the first element of a byte[].
+     */
+    static final long BYTE_ARRAY_BASE_OFFSET;
+
+    static {
+        try {
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            UNSAFE = (Unsafe) field.get(null);
+            BYTE_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private UnsafeAccess() {
+    }
+}
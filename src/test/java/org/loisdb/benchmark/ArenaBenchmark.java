@@ -0,0 +1,80 @@
+package org.loisdb.benchmark;
+
+import org.loisdb.util.Arena;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare allocation from the shared offset of arena with allocation from thread local slabs at 1 to 32 threads.
+ * Every iteration allocates BATCH times per thread from a fresh arena, so the arena never runs out of space.
+ * Run it with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.loisdb.benchmark.ArenaBenchmark
+ * </pre>
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = ArenaBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = ArenaBenchmark.BATCH)
+@Fork(1)
+public class ArenaBenchmark {
+
+    static final int BATCH = 1 << 20;
+
+    /**
+     * 0 allocates from the shared offset, otherwise from thread local slabs of this size.
+     */
+    @Param({"0", "32768"})
+    public int slabSize;
+
+    @Param({"16"})
+    public int allocationSize;
+
+    private Arena arena;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        arena = new Arena(4 << 20, true, true, slabSize);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public int allocate() {
+        return arena.allocate(allocationSize);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32}) {
+            Options options = new OptionsBuilder()
+                    .include(ArenaBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.loisdb.benchmark;
+
+import org.loisdb.util.Bloom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of testing a batch of keys against one bloom filter, with one {@link Bloom#mayContainKeys(byte[][], BitSet)}
+ * against one {@link Bloom#mayContainsKey(byte[])} per key. A filter of 100k keys fits in L2, a filter of 10m keys
+ * (12MB) does not. A tenth of the keys of a batch are in the filter, the score is the time per key.
+ * Run it with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.loisdb.benchmark.BloomBatchProbeBenchmark
+ * </pre>
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BloomBatchProbeBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final int BATCHES = 64;
+
+    @Param({"100000", "10000000"})
+    public int numEntries;
+
+    private Bloom bloom;
+
+    private byte[][][] batches;
+
+    private BitSet results;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        bloom = new Bloom(0.01, numEntries);
+        for (int i = 0; i < numEntries; i++) {
+            bloom.insert(key("key", i));
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        batches = new byte[BATCHES][BATCH_SIZE][];
+        for (byte[][] batch : batches) {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch[i] = random.nextInt(10) == 0 ? key("key", random.nextInt(numEntries))
+                        : key("absent", random.nextInt());
+            }
+        }
+        results = new BitSet(BATCH_SIZE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BitSet batched() {
+        bloom.mayContainKeys(nextBatch(), results);
+        return results;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BitSet oneByOne() {
+        byte[][] batch = nextBatch();
+        results.clear();
+        for (int i = 0; i < batch.length; i++) {
+            if (bloom.mayContainsKey(batch[i])) {
+                results.set(i);
+            }
+        }
+        return results;
+    }
+
+    private byte[][] nextBatch() {
+        byte[][] batch = batches[next];
+        next = (next + 1) % BATCHES;
+        return batch;
+    }
+
+    private static byte[] key(String prefix, int i) {
+        return (prefix + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BloomBatchProbeBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
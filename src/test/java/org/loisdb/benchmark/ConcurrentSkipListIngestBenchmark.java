@@ -0,0 +1,82 @@
+package org.loisdb.benchmark;
+
+import org.loisdb.util.ConcurrentSkipList;
+import org.loisdb.util.SimpleSkipList;
+import org.loisdb.util.SkipList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingest throughput of the lock-free skip list against a simple skip list behind a lock at 1 to 16 writer threads.
+ * Every iteration inserts BATCH random scores per thread into a fresh list, so the cost of a single shot is the time
+ * the writers take to insert all of them together.
+ * Run it with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.loisdb.benchmark.ConcurrentSkipListIngestBenchmark
+ * </pre>
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = ConcurrentSkipListIngestBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = ConcurrentSkipListIngestBenchmark.BATCH)
+@Fork(1)
+public class ConcurrentSkipListIngestBenchmark {
+
+    static final int BATCH = 1 << 18;
+
+    /**
+     * concurrent for the lock-free skip list, locked for a simple skip list whose adds hold a lock.
+     */
+    @Param({"concurrent", "locked"})
+    public String type;
+
+    private SkipList<Integer> list;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        list = "concurrent".equals(type) ? new ConcurrentSkipList<>() : new SimpleSkipList<>();
+    }
+
+    @Benchmark
+    public boolean add() {
+        int score = ThreadLocalRandom.current().nextInt();
+        if ("concurrent".equals(type)) {
+            return list.add(score, score);
+        }
+        synchronized (this) {
+            return list.add(score, score);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8, 16}) {
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentSkipListIngestBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.loisdb.benchmark;
+
+import org.loisdb.util.ConcurrentSkipList;
+import org.loisdb.util.SimpleSkipList;
+import org.loisdb.util.SkipList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of inserting a write batch into a skip list, with one addAll of the whole batch against one add per value.
+ * Every iteration starts from a list of 100k values, each operation inserts a batch of random scores, divide the
+ * score by batchSize to get the cost per value.
+ * Run it with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.loisdb.benchmark.SkipListBatchInsertBenchmark
+ * </pre>
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkipListBatchInsertBenchmark {
+
+    private static final int INITIAL_SIZE = 100_000;
+
+    @Param({"simple", "concurrent"})
+    public String type;
+
+    @Param({"16", "256", "4096"})
+    public int batchSize;
+
+    private SkipList<Integer> list;
+
+    private Integer[] vals;
+
+    private int[] scores;
+
+    private int counter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        list = "simple".equals(type) ? new SimpleSkipList<>() : new ConcurrentSkipList<>();
+        vals = new Integer[batchSize];
+        scores = new int[batchSize];
+        counter = 0;
+        for (int i = 0; i < INITIAL_SIZE; i++) {
+            int score = nextScore();
+            list.add(score, score);
+        }
+    }
+
+    @Benchmark
+    public boolean addAll() {
+        fillBatch();
+        return list.addAll(vals, scores);
+    }
+
+    @Benchmark
+    public boolean addOneByOne() {
+        fillBatch();
+        boolean changed = false;
+        for (int i = 0; i < batchSize; i++) {
+            changed |= list.add(vals[i], scores[i]);
+        }
+        return changed;
+    }
+
+    private void fillBatch() {
+        for (int i = 0; i < batchSize; i++) {
+            scores[i] = nextScore();
+            vals[i] = scores[i];
+        }
+    }
+
+    private int nextScore() {
+        // multiplying by an odd constant visits every int once, in an order which looks random.
+        return counter++ * 0x9E3779B9;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SkipListBatchInsertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,74 @@
+package org.loisdb.benchmark;
+
+import org.loisdb.util.SimpleSkipList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histogram of SimpleSkipList.add. Sample time mode reports p50 up to p99.99 and the max, every iteration
+ * starts from an empty list and inserts keys of random order, so tall lists and the power-of-two sizes where the list
+ * used to be rebuilt are all covered. Compare the percentiles of this benchmark on the commit before random tower
+ * heights with the ones after it.
+ * Run it with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.loisdb.benchmark.SkipListInsertLatencyBenchmark
+ * </pre>
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SkipListInsertLatencyBenchmark {
+
+    /**
+     * probability that a node appears in the next level, 1/4 and 1/e.
+     */
+    @Param({"0.25", "0.36787944"})
+    public double probability;
+
+    private SimpleSkipList<Integer> list;
+
+    private int counter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        list = new SimpleSkipList<>(SimpleSkipList.DEFAULT_MAX_LEVEL, probability);
+        counter = 0;
+    }
+
+    @Benchmark
+    public boolean add() {
+        // multiplying by an odd constant visits every int once, in an order which looks random.
+        int score = counter++ * 0x9E3779B9;
+        return list.add(score, score);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SkipListInsertLatencyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
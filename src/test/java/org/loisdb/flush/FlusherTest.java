@@ -0,0 +1,159 @@
+package org.loisdb.flush;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.loisdb.memtable.MemTableManager;
+import org.loisdb.sst.Table;
+import org.loisdb.sst.TableOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The unit test of flusher
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class FlusherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testFlushAndRead() throws Exception {
+        File dir = folder.newFolder();
+        try (MemTableManager manager = new MemTableManager(1 << 16, false, 2)) {
+            Flusher flusher = new Flusher(manager, dir, 2, new TableOptions().setBlockSize(1024));
+            for (int i = 0; i < 20000; i++) {
+                manager.put(bytes("key" + i), bytes("value" + i));
+            }
+            for (int i = 0; i < 20000; i += 100) {
+                manager.delete(bytes("key" + i));
+            }
+            flusher.waitForFlushes();
+
+            Assert.assertNull(flusher.backgroundError());
+            Assert.assertTrue(manager.immutables().isEmpty());
+            List<Table> tables = flusher.tables();
+            Assert.assertTrue(tables.size() > 2);
+            for (Table table : tables) {
+                Assert.assertTrue(table.file().getName().endsWith(Flusher.TABLE_SUFFIX));
+            }
+            Assert.assertEquals(tables.size(), dir.list().length);
+
+            for (int i = 0; i < 20000; i++) {
+                byte[] value = flusher.get(bytes("key" + i));
+                if (i % 100 == 0) {
+                    Assert.assertNull(value);
+                } else {
+                    Assert.assertArrayEquals(bytes("value" + i), value);
+                }
+            }
+            flusher.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentWritersWithFlush() throws Exception {
+        File dir = folder.newFolder();
+        try (MemTableManager manager = new MemTableManager(1 << 16, true, 1)) {
+            Flusher flusher = new Flusher(manager, dir, 1);
+            int threads = 4;
+            int perThread = 10000;
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int base = t;
+                Thread writer = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        byte[] key = bytes(String.format("key%08d", i * threads + base));
+                        manager.put(key, key);
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            flusher.waitForFlushes();
+
+            Assert.assertNull(flusher.backgroundError());
+            Assert.assertTrue(manager.immutables().size() <= 1);
+            for (int i = 0; i < threads * perThread; i++) {
+                byte[] key = bytes(String.format("key%08d", i));
+                Assert.assertArrayEquals(key, flusher.get(key));
+            }
+            flusher.close();
+        }
+    }
+
+    /**
+     * Write until the manager fails the write, writers must never stall forever behind failed flushes.
+     */
+    private static Throwable writeUntilFailure(MemTableManager manager) throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; ; i++) {
+                    manager.put(bytes(String.format("key%08d", i)), bytes("value" + i));
+                }
+            } catch (IllegalStateException e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+        writer.join(10000);
+        Assert.assertFalse("writer is stalled", writer.isAlive());
+        return failure.get();
+    }
+
+    @Test
+    public void testFailedDirectory() throws Exception {
+        File dir = folder.newFolder();
+        try (MemTableManager manager = new MemTableManager(1 << 16, false, 2)) {
+            Flusher flusher = new Flusher(manager, dir, 1);
+            Assert.assertTrue(dir.delete());
+            Throwable failure = writeUntilFailure(manager);
+            flusher.waitForFlushes();
+
+            Assert.assertNotNull(failure);
+            Assert.assertTrue(failure.getCause() instanceof IOException);
+            Assert.assertSame(failure.getCause(), flusher.backgroundError());
+            Assert.assertSame(failure.getCause(), manager.backgroundError());
+            Assert.assertFalse(manager.immutables().isEmpty());
+            Assert.assertTrue(flusher.tables().isEmpty());
+            // entries of the memtables which failed to flush are still readable.
+            Assert.assertArrayEquals(bytes("value0"), flusher.get(bytes("key00000000")));
+            flusher.close();
+        }
+    }
+
+    @Test
+    public void testRuntimeExceptionOfFlush() throws Exception {
+        File dir = folder.newFolder();
+        TableOptions options = new TableOptions().setComparator((a, b) -> {
+            throw new UnsupportedOperationException("broken comparator");
+        });
+        try (MemTableManager manager = new MemTableManager(1 << 16, false, 1)) {
+            Flusher flusher = new Flusher(manager, dir, 1, options);
+            Throwable failure = writeUntilFailure(manager);
+            flusher.waitForFlushes();
+
+            Assert.assertNotNull(failure);
+            Assert.assertTrue(failure.getCause() instanceof UnsupportedOperationException);
+            Assert.assertSame(failure.getCause(), flusher.backgroundError());
+            flusher.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.loisdb.memtable;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The unit test of memtable manager
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class MemTableManagerTest {
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testSwapWhenFull() {
+        try (MemTableManager manager = new MemTableManager(1 << 16)) {
+            MemTable first = manager.active();
+            for (int i = 0; i < 10000; i++) {
+                manager.put(bytes("key" + i), bytes("value" + i));
+            }
+            manager.delete(bytes("key7"));
+
+            Assert.assertNotSame(first, manager.active());
+            List<MemTable> immutables = manager.immutables();
+            Assert.assertFalse(immutables.isEmpty());
+            Assert.assertSame(first, immutables.get(immutables.size() - 1));
+            for (MemTable imm : immutables) {
+                Assert.assertTrue(imm.isImmutable());
+            }
+            Assert.assertNull(manager.get(bytes("key7")));
+            for (int i = 0; i < 10000; i++) {
+                if (i != 7) {
+                    Assert.assertArrayEquals(bytes("value" + i), manager.get(bytes("key" + i)));
+                }
+            }
+
+            Assert.assertTrue(manager.removeImmutable(first));
+            Assert.assertFalse(manager.removeImmutable(first));
+            Assert.assertFalse(first.tryRef());
+        }
+    }
+
+    @Test
+    public void testConcurrentWritesDuringSwap() throws InterruptedException {
+        try (MemTableManager manager = new MemTableManager(1 << 16, true)) {
+            int threads = 4;
+            int perThread = 20000;
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int base = t;
+                Thread writer = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        byte[] key = bytes(String.format("key%08d", i * threads + base));
+                        manager.put(key, key);
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+
+            int entries = manager.active().size();
+            for (MemTable imm : manager.immutables()) {
+                Assert.assertTrue(imm.isImmutable());
+                entries += imm.size();
+            }
+            Assert.assertEquals(threads * perThread, entries);
+            for (int i = 0; i < threads * perThread; i++) {
+                byte[] key = bytes(String.format("key%08d", i));
+                Assert.assertArrayEquals(key, manager.get(key));
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.loisdb.memtable;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.loisdb.util.Arena;
+import org.loisdb.util.BytewiseComparator;
+import org.loisdb.util.ConcurrentBloom;
+import org.loisdb.util.PrefixExtractor;
+import org.loisdb.util.Slice;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The unit test of memtable
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class MemTableTest {
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testValueAndDeletion() {
+        MemTable mem = new MemTable(new Arena(1 << 16, true));
+        mem.add(bytes("a"), ValueType.VALUE, bytes("1"));
+        mem.add(bytes("b"), ValueType.VALUE, bytes("2"));
+        mem.add(bytes("b"), ValueType.DELETION, null);
+
+        Slice value = new Slice();
+        Assert.assertEquals(ValueType.VALUE, mem.get(new Slice(bytes("a")), value));
+        Assert.assertEquals(new Slice(bytes("1")), value);
+        Assert.assertEquals(ValueType.DELETION, mem.get(new Slice(bytes("b")), value));
+        Assert.assertEquals(0, value.length());
+        Assert.assertNull(mem.get(new Slice(bytes("c")), value));
+        Assert.assertEquals(2, mem.size());
+        Assert.assertTrue(mem.usage() > 0);
+    }
+
+    @Test
+    public void testSealAndRelease() {
+        MemTable mem = new MemTable(new Arena(1 << 16, true, true));
+        Assert.assertTrue(mem.beginWrite());
+        Assert.assertTrue(mem.seal());
+        Assert.assertFalse(mem.seal());
+        Assert.assertFalse(mem.beginWrite());
+        Assert.assertFalse(mem.isImmutable());
+        mem.endWrite();
+        Assert.assertTrue(mem.isImmutable());
+
+        Assert.assertTrue(mem.tryRef());
+        mem.unref();
+        mem.unref();
+        Assert.assertFalse(mem.tryRef());
+    }
+
+    @Test
+    public void testWhenImmutable() {
+        int[] calls = new int[2];
+        MemTable mem = new MemTable(new Arena(1 << 16, true));
+        Assert.assertTrue(mem.beginWrite());
+        Assert.assertTrue(mem.beginWrite());
+        mem.whenImmutable(() -> calls[0]++);
+        mem.seal();
+        mem.endWrite();
+        Assert.assertEquals(0, calls[0]);
+        mem.endWrite();
+        Assert.assertEquals(1, calls[0]);
+
+        MemTable sealed = new MemTable(new Arena(1 << 16, true));
+        sealed.seal();
+        sealed.whenImmutable(() -> calls[1]++);
+        Assert.assertEquals(1, calls[1]);
+        Assert.assertEquals(1, calls[0]);
+    }
+
+    @Test
+    public void testFilter() throws InterruptedException {
+        MemTable mem = new MemTable(1, new Arena(1 << 20, true), BytewiseComparator.INSTANCE,
+                new ConcurrentBloom(1 << 16, 6));
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            int id = t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    mem.add(bytes("key" + id + "-" + i), ValueType.VALUE, bytes("value" + i));
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        Slice value = new Slice();
+        int ruledOut = 0;
+        for (int t = 0; t < writers.length; t++) {
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertEquals(ValueType.VALUE, mem.get(new Slice(bytes("key" + t + "-" + i)), value));
+                Assert.assertEquals(new Slice(bytes("value" + i)), value);
+                if (!mem.mayContainKey(new Slice(bytes("absent" + t + "-" + i)))) {
+                    ruledOut++;
+                }
+            }
+        }
+        Assert.assertTrue(ruledOut > 3900);
+    }
+
+    @Test
+    public void testPrefixFilter() {
+        MemTable mem = new MemTable(1, new Arena(1 << 20, true), BytewiseComparator.INSTANCE,
+                new ConcurrentBloom(1 << 16, 6), PrefixExtractor.fixed(4));
+        for (int i = 0; i < 1000; i += 2) {
+            mem.add(bytes(String.format("%04d-key", i)), ValueType.VALUE, bytes("value" + i));
+        }
+        mem.add(bytes("abc"), ValueType.VALUE, bytes("no prefix"));
+        int ruledOut = 0;
+        for (int i = 0; i < 1000; i += 2) {
+            Assert.assertTrue(mem.mayContainPrefix(new Slice(bytes(String.format("%04d", i)))));
+            if (!mem.mayContainPrefix(new Slice(bytes(String.format("%04d", i + 1))))) {
+                ruledOut++;
+            }
+        }
+        Assert.assertTrue(ruledOut > 490);
+        Assert.assertEquals(ValueType.VALUE, mem.get(new Slice(bytes("abc")), new Slice()));
+
+        MemTable plain = new MemTable(2, new Arena(1 << 16, true), BytewiseComparator.INSTANCE,
+                new ConcurrentBloom(1 << 16, 6));
+        plain.add(bytes("0000-key"), ValueType.VALUE, bytes("value"));
+        Assert.assertTrue(plain.mayContainPrefix(new Slice(bytes("0001"))));
+    }
+}
@@ -0,0 +1,55 @@
+package org.loisdb.sst;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.loisdb.util.BytewiseComparator;
+import org.loisdb.util.Slice;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The unit test of block
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class BlockTest {
+
+    private static Slice slice(String s) {
+        return new Slice(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String string(Slice slice) {
+        return new String(slice.toBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testSharedPrefixAndRestarts() throws IOException {
+        BlockBuilder builder = new BlockBuilder(3);
+        for (int i = 0; i < 10; i++) {
+            builder.add(slice("user|000" + i), slice("v" + i));
+        }
+        byte[] bytes = builder.finish();
+        // 4 restart points for 10 entries, each entry after a restart point stores one byte of its key.
+        Assert.assertEquals(4, Coding.getInt(bytes, builder.size() - 4));
+
+        Block.Iterator iterator = new Block(bytes, builder.size()).iterator(BytewiseComparator.INSTANCE);
+        iterator.seek(slice("user|0005"));
+        Assert.assertEquals("user|0005", string(iterator.key()));
+        Assert.assertEquals("v5", string(iterator.value()));
+        iterator.seek(slice("user|00055"));
+        Assert.assertEquals("user|0006", string(iterator.key()));
+        iterator.prev();
+        iterator.prev();
+        Assert.assertEquals("user|0004", string(iterator.key()));
+        iterator.seek(slice("a"));
+        Assert.assertEquals("user|0000", string(iterator.key()));
+        iterator.prev();
+        Assert.assertFalse(iterator.valid());
+        iterator.seekToLast();
+        Assert.assertEquals("user|0009", string(iterator.key()));
+        iterator.seek(slice("z"));
+        Assert.assertFalse(iterator.valid());
+    }
+}
@@ -0,0 +1,267 @@
+package org.loisdb.sst;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.loisdb.memtable.ValueType;
+import org.loisdb.util.PrefixExtractor;
+import org.loisdb.util.Slice;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The unit test of table
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class TableTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Slice slice(String s) {
+        return new Slice(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String string(Slice slice) {
+        return new String(slice.toBytes(), StandardCharsets.UTF_8);
+    }
+
+    private File build(int entries, TableOptions options) throws IOException {
+        File file = folder.newFile();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            TableBuilder builder = new TableBuilder(out, options);
+            for (int i = 0; i < entries; i++) {
+                String key = String.format("key%06d", i * 2);
+                if (i % 10 == 0) {
+                    builder.add(slice(key), ValueType.DELETION, new Slice());
+                } else {
+                    builder.add(slice(key), ValueType.VALUE, slice("value" + i));
+                }
+            }
+            builder.finish();
+            Assert.assertEquals(file.length(), builder.fileSize());
+        }
+        return file;
+    }
+
+    @Test
+    public void testBuildAndGet() throws IOException {
+        try (Table table = Table.open(build(10000, new TableOptions()))) {
+            Assert.assertEquals(10000, table.size());
+            Slice value = new Slice();
+            for (int i = 0; i < 10000; i++) {
+                ValueType type = table.get(slice(String.format("key%06d", i * 2)), value);
+                if (i % 10 == 0) {
+                    Assert.assertEquals(ValueType.DELETION, type);
+                } else {
+                    Assert.assertEquals(ValueType.VALUE, type);
+                    Assert.assertEquals(slice("value" + i), value);
+                }
+                Assert.assertNull(table.get(slice(String.format("key%06d", i * 2 + 1)), value));
+            }
+            Assert.assertNull(table.get(slice("key"), value));
+            Assert.assertNull(table.get(slice("key999999"), value));
+        }
+    }
+
+    @Test
+    public void testPrefixCompression() throws IOException {
+        File compressed = build(10000, new TableOptions());
+        File uncompressed = build(10000, new TableOptions().setBlockRestartInterval(1));
+        Assert.assertTrue(compressed.length() < uncompressed.length() * 3 / 4);
+    }
+
+    @Test
+    public void testIterator() throws IOException {
+        TableOptions options = new TableOptions().setBlockSize(256).setBlockRestartInterval(4);
+        try (Table table = Table.open(build(1000, options), options)) {
+            Table.Iterator iterator = table.iterator();
+            int expect = 0;
+            for (iterator.seekToFirst(); iterator.valid(); iterator.next()) {
+                Assert.assertEquals(String.format("key%06d", expect * 2), string(iterator.key()));
+                Assert.assertEquals(expect % 10 == 0 ? ValueType.DELETION : ValueType.VALUE, iterator.type());
+                expect++;
+            }
+            Assert.assertEquals(1000, expect);
+
+            for (iterator.seekToLast(); iterator.valid(); iterator.prev()) {
+                expect--;
+                Assert.assertEquals(String.format("key%06d", expect * 2), string(iterator.key()));
+            }
+            Assert.assertEquals(0, expect);
+
+            iterator.seek(slice("key000101"));
+            Assert.assertEquals("key000102", string(iterator.key()));
+            Assert.assertEquals("value51", string(iterator.value()));
+            iterator.prev();
+            Assert.assertEquals("key000100", string(iterator.key()));
+            iterator.seekForPrev(slice("key000101"));
+            Assert.assertEquals("key000100", string(iterator.key()));
+            iterator.seekForPrev(slice("key999999"));
+            Assert.assertEquals("key001998", string(iterator.key()));
+            iterator.seek(slice("key999999"));
+            Assert.assertFalse(iterator.valid());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfOrder() throws IOException {
+        TableBuilder builder = new TableBuilder(new FileOutputStream(folder.newFile()));
+        builder.add(slice("b"), ValueType.VALUE, slice("1"));
+        builder.add(slice("a"), ValueType.VALUE, slice("2"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        File file = build(10, new TableOptions());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+        Table.open(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void testChecksumMismatch() throws IOException {
+        File file = build(10, new TableOptions());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(5);
+            int b = raf.read();
+            raf.seek(5);
+            raf.write(b ^ 1);
+        }
+        try (Table table = Table.open(file)) {
+            table.get(slice("key000002"), new Slice());
+        }
+    }
+
+    @Test
+    public void testFilterSkipsDataBlocks() throws IOException {
+        File file = build(1000, new TableOptions());
+        // corrupt the first data block, a lookup ruled out by the filter must not read it.
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(5);
+            int b = raf.read();
+            raf.seek(5);
+            raf.write(b ^ 1);
+        }
+        try (Table table = Table.open(file)) {
+            int ruledOut = 0;
+            for (int i = 0; i < 1000; i++) {
+                Slice key = slice(String.format("key%06d", i * 2 + 1));
+                if (!table.mayContainKey(key)) {
+                    Assert.assertNull(table.get(key, new Slice()));
+                    ruledOut++;
+                }
+            }
+            Assert.assertTrue(ruledOut > 900);
+        }
+    }
+
+    @Test
+    public void testWithoutFilter() throws IOException {
+        try (Table table = Table.open(build(1000, new TableOptions().setFilterFalsePositive(0)))) {
+            Slice value = new Slice();
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertTrue(table.mayContainKey(slice(String.format("key%06d", i * 2 + 1))));
+                Assert.assertNull(table.get(slice(String.format("key%06d", i * 2 + 1)), value));
+            }
+            Assert.assertEquals(ValueType.VALUE, table.get(slice("key000002"), value));
+            Assert.assertEquals("value1", string(value));
+        }
+    }
+
+    @Test
+    public void testFilterTypes() throws IOException {
+        for (FilterType type : FilterType.values()) {
+            File file = build(1000, new TableOptions().setFilterType(type));
+            // the filter type is read from the table, whatever the options of the reader are.
+            try (Table table = Table.open(file)) {
+                Slice value = new Slice();
+                int ruledOut = 0;
+                for (int i = 0; i < 1000; i++) {
+                    Slice key = slice(String.format("key%06d", i * 2));
+                    Assert.assertTrue(type.name(), table.mayContainKey(key));
+                    Assert.assertEquals(i % 10 == 0 ? ValueType.DELETION : ValueType.VALUE, table.get(key, value));
+                    if (!table.mayContainKey(slice(String.format("key%06d", i * 2 + 1)))) {
+                        ruledOut++;
+                    }
+                }
+                Assert.assertTrue(type.name(), ruledOut > 950);
+            }
+        }
+    }
+
+    @Test
+    public void testRibbonWithExpectedEntries() throws IOException {
+        File file = folder.newFile();
+        TableOptions options = new TableOptions().setFilterType(FilterType.RIBBON);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            TableBuilder builder = new TableBuilder(out, options, 1000);
+            for (int i = 0; i < 1000; i++) {
+                builder.add(slice(String.format("key%06d", i * 2)), ValueType.VALUE, slice("value" + i));
+            }
+            builder.finish();
+        }
+        try (Table table = Table.open(file, options)) {
+            Slice value = new Slice();
+            int ruledOut = 0;
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertEquals(ValueType.VALUE, table.get(slice(String.format("key%06d", i * 2)), value));
+                Assert.assertEquals("value" + i, string(value));
+                if (!table.mayContainKey(slice(String.format("key%06d", i * 2 + 1)))) {
+                    ruledOut++;
+                }
+            }
+            Assert.assertTrue(ruledOut > 950);
+        }
+    }
+
+    @Test
+    public void testPrefixFilter() throws IOException {
+        File file = folder.newFile();
+        TableOptions options = new TableOptions().setPrefixExtractor(PrefixExtractor.delimited((byte) '|', 2));
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            TableBuilder builder = new TableBuilder(out, options);
+            for (int t = 0; t < 10; t++) {
+                for (int e = 0; e < 100; e += 2) {
+                    for (int ts = 0; ts < 5; ts++) {
+                        builder.add(slice(String.format("t%d|e%03d|%d", t, e, ts)), ValueType.VALUE, slice("v" + ts));
+                    }
+                }
+            }
+            builder.add(slice("tenant"), ValueType.VALUE, slice("no prefix"));
+            builder.finish();
+        }
+        try (Table table = Table.open(file, options)) {
+            int ruledOut = 0;
+            for (int t = 0; t < 10; t++) {
+                for (int e = 0; e < 100; e += 2) {
+                    Assert.assertTrue(table.mayContainPrefix(slice(String.format("t%d|e%03d|", t, e))));
+                    if (!table.mayContainPrefix(slice(String.format("t%d|e%03d|", t, e + 1)))) {
+                        ruledOut++;
+                    }
+                }
+            }
+            Assert.assertTrue(ruledOut > 480);
+            Assert.assertEquals(ValueType.VALUE, table.get(slice("t3|e042|4"), new Slice()));
+            Assert.assertEquals(ValueType.VALUE, table.get(slice("tenant"), new Slice()));
+        }
+        // a reader with another extractor can not use the prefixes of the filter.
+        try (Table table = Table.open(file, new TableOptions().setPrefixExtractor(PrefixExtractor.fixed(3)))) {
+            for (int e = 1; e < 100; e += 2) {
+                Assert.assertTrue(table.mayContainPrefix(slice(String.format("t0|e%03d|", e))));
+            }
+            Assert.assertEquals(ValueType.VALUE, table.get(slice("t0|e000|0"), new Slice()));
+        }
+        try (Table table = Table.open(file, new TableOptions())) {
+            Assert.assertTrue(table.mayContainPrefix(slice("t0|e001|")));
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The unit test of arena skip list
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class ArenaSkipListTest {
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] b) {
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testPutAndGet() {
+        ArenaSkipList list = new ArenaSkipList(new Arena(1 << 16));
+        list.put(bytes("b"), bytes("2"));
+        list.put(bytes("a"), bytes("1"));
+        list.put(bytes("ab"), bytes("3"));
+        list.put(bytes("b"), bytes("22"));
+
+        Assert.assertEquals(3, list.size());
+        Assert.assertEquals("1", string(list.get(bytes("a"))));
+        Assert.assertEquals("3", string(list.get(bytes("ab"))));
+        Assert.assertEquals("22", string(list.get(bytes("b"))));
+        Assert.assertNull(list.get(bytes("c")));
+        Assert.assertNull(list.get(bytes("")));
+    }
+
+    @Test
+    public void testUnsignedOrder() {
+        ArenaSkipList list = new ArenaSkipList(new Arena(1 << 16));
+        list.put(new byte[]{(byte) 0x80}, bytes("high"));
+        list.put(new byte[]{0x7f}, bytes("low"));
+        list.put(new byte[]{0x7f, 0}, bytes("low2"));
+
+        ArenaSkipList.Cursor cursor = list.cursor();
+        cursor.seekToFirst();
+        List<String> values = new ArrayList<>();
+        while (cursor.valid()) {
+            values.add(string(cursor.value().toBytes()));
+            cursor.next();
+        }
+        Assert.assertEquals(3, values.size());
+        Assert.assertEquals("low", values.get(0));
+        Assert.assertEquals("low2", values.get(1));
+        Assert.assertEquals("high", values.get(2));
+    }
+
+    @Test
+    public void testConcurrentPut() throws InterruptedException {
+        ArenaSkipList list = new ArenaSkipList(new Arena(32 << 20));
+        int threads = 8;
+        int perThread = 10000;
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t;
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    byte[] key = bytes(String.format("key%08d", i * threads + base));
+                    list.put(key, key);
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        Assert.assertEquals(threads * perThread, list.size());
+        ArenaSkipList.Cursor cursor = list.cursor();
+        cursor.seekToFirst();
+        int expect = 0;
+        while (cursor.valid()) {
+            Assert.assertEquals(String.format("key%08d", expect++), string(cursor.key().toBytes()));
+            cursor.next();
+        }
+        Assert.assertEquals(threads * perThread, expect);
+    }
+
+    @Test
+    public void testGetSliceOffHeap() {
+        try (Arena arena = new Arena(1 << 16, true, true)) {
+            ArenaSkipList list = new ArenaSkipList(arena);
+            list.put(bytes("k1"), bytes("v1"));
+            list.put(bytes("k2"), bytes("value2"));
+
+            Slice value = new Slice();
+            Assert.assertTrue(list.get(bytes("k2"), value));
+            Assert.assertEquals(new Slice(bytes("value2")), value);
+            Assert.assertTrue(list.get(bytes("k1"), value));
+            Assert.assertEquals("v1", string(value.toBytes()));
+            Assert.assertFalse(list.get(bytes("k3"), value));
+        }
+    }
+
+    @Test
+    public void testSeekRangeAndPrefix() {
+        ArenaSkipList list = new ArenaSkipList(new Arena(1 << 16));
+        for (String key : new String[]{"t1|a", "t1|b", "t2|a", "t2|c", "t3|a"}) {
+            list.put(bytes(key), bytes(key));
+        }
+
+        ArenaSkipList.Cursor cursor = list.cursor();
+        cursor.seek(bytes("t2|b"));
+        Assert.assertEquals("t2|c", string(cursor.key().toBytes()));
+        cursor.seek(bytes("t4"));
+        Assert.assertFalse(cursor.valid());
+
+        List<String> range = new ArrayList<>();
+        Slice upper = new Slice(bytes("t2|b"));
+        for (cursor.seek(bytes("t1|b")); cursor.valid() && cursor.key().compareTo(upper) < 0; cursor.next()) {
+            range.add(string(cursor.key().toBytes()));
+        }
+        Assert.assertEquals(2, range.size());
+        Assert.assertEquals("t1|b", range.get(0));
+        Assert.assertEquals("t2|a", range.get(1));
+
+        List<String> prefixed = new ArrayList<>();
+        Slice prefix = new Slice(bytes("t2|"));
+        for (cursor.seek(prefix); cursor.valid() && cursor.key().startsWith(prefix); cursor.next()) {
+            prefixed.add(string(cursor.key().toBytes()));
+        }
+        Assert.assertEquals(2, prefixed.size());
+        Assert.assertEquals("t2|a", prefixed.get(0));
+        Assert.assertEquals("t2|c", prefixed.get(1));
+    }
+
+    @Test
+    public void testSeekToOwnKey() {
+        ArenaSkipList list = new ArenaSkipList(new Arena(1 << 16));
+        for (int i = 0; i < 100; i++) {
+            list.put(bytes(String.format("k%03d", i)), bytes(String.valueOf(i)));
+        }
+
+        ArenaSkipList.Cursor cursor = list.cursor();
+        cursor.seek(bytes("k050"));
+        cursor.seek(cursor.key());
+        Assert.assertEquals("k050", string(cursor.key().toBytes()));
+        cursor.seekForPrev(cursor.key());
+        Assert.assertEquals("k050", string(cursor.key().toBytes()));
+        cursor.next();
+        cursor.seek(cursor.key());
+        Assert.assertEquals("k051", string(cursor.key().toBytes()));
+        Assert.assertEquals("51", string(cursor.value().toBytes()));
+
+        ArenaSkipList.Cursor bounded = list.cursor(bytes("k010"), false, bytes("k090"), true);
+        bounded.seekToFirst();
+        Assert.assertEquals("k011", string(bounded.key().toBytes()));
+        bounded.seek(bytes("k070"));
+        bounded.seek(bounded.key());
+        Assert.assertEquals("k070", string(bounded.key().toBytes()));
+        bounded.seekToLast();
+        bounded.seekForPrev(bounded.key());
+        Assert.assertEquals("k090", string(bounded.key().toBytes()));
+    }
+
+    @Test
+    public void testCustomComparator() {
+        ArenaSkipList list = new ArenaSkipList(new Arena(1 << 16), (a, b) -> b.compareTo(a));
+        list.put(bytes("a"), bytes("1"));
+        list.put(bytes("c"), bytes("3"));
+        list.put(bytes("b"), bytes("2"));
+
+        ArenaSkipList.Cursor cursor = list.cursor();
+        cursor.seekToFirst();
+        Assert.assertEquals("c", string(cursor.key().toBytes()));
+        cursor.seek(bytes("bb"));
+        Assert.assertEquals("b", string(cursor.key().toBytes()));
+        Assert.assertEquals("2", string(list.get(bytes("b"))));
+    }
+
+    @Test
+    public void testBidirectional() {
+        ArenaSkipList list = new ArenaSkipList(new Arena(1 << 20));
+        for (int i = 0; i < 1000; i += 2) {
+            list.put(bytes(String.format("%04d", i)), bytes(String.valueOf(i)));
+        }
+
+        ArenaSkipList.Cursor cursor = list.cursor();
+        cursor.seekToLast();
+        Assert.assertEquals("0998", string(cursor.key().toBytes()));
+        for (int i = 998; i >= 0; i -= 2) {
+            Assert.assertTrue(cursor.valid());
+            Assert.assertEquals(String.valueOf(i), string(cursor.value().toBytes()));
+            cursor.prev();
+        }
+        Assert.assertFalse(cursor.valid());
+
+        cursor.seekForPrev(bytes("0101"));
+        Assert.assertEquals("0100", string(cursor.key().toBytes()));
+        cursor.seekForPrev(bytes("0100"));
+        Assert.assertEquals("0100", string(cursor.key().toBytes()));
+        cursor.next();
+        Assert.assertEquals("0102", string(cursor.key().toBytes()));
+        cursor.prev();
+        cursor.prev();
+        Assert.assertEquals("0098", string(cursor.key().toBytes()));
+        cursor.seekForPrev(bytes("/"));
+        Assert.assertFalse(cursor.valid());
+    }
+
+    @Test
+    public void testBounds() {
+        ArenaSkipList list = new ArenaSkipList(new Arena(1 << 16));
+        for (String key : new String[]{"a", "b", "c", "d", "e"}) {
+            list.put(bytes(key), bytes(key));
+        }
+
+        ArenaSkipList.Cursor cursor = list.cursor(bytes("b"), false, bytes("d"), true);
+        List<String> forward = new ArrayList<>();
+        for (cursor.seekToFirst(); cursor.valid(); cursor.next()) {
+            forward.add(string(cursor.key().toBytes()));
+        }
+        Assert.assertEquals(2, forward.size());
+        Assert.assertEquals("c", forward.get(0));
+        Assert.assertEquals("d", forward.get(1));
+
+        List<String> backward = new ArrayList<>();
+        for (cursor.seekToLast(); cursor.valid(); cursor.prev()) {
+            backward.add(string(cursor.key().toBytes()));
+        }
+        Assert.assertEquals(2, backward.size());
+        Assert.assertEquals("d", backward.get(0));
+
+        cursor.seek(bytes("a"));
+        Assert.assertEquals("c", string(cursor.key().toBytes()));
+        cursor.seekForPrev(bytes("z"));
+        Assert.assertEquals("d", string(cursor.key().toBytes()));
+
+        cursor = list.cursor(bytes("b"), true, bytes("d"), false);
+        cursor.seekToLast();
+        Assert.assertEquals("c", string(cursor.key().toBytes()));
+        cursor.seekToFirst();
+        Assert.assertEquals("b", string(cursor.key().toBytes()));
+        cursor.prev();
+        Assert.assertFalse(cursor.valid());
+        cursor.seek(bytes("d"));
+        Assert.assertFalse(cursor.valid());
+    }
+
+    @Test
+    public void testPutWithSplice() {
+        ArenaSkipList list = new ArenaSkipList(new Arena(1 << 20));
+        ArenaSkipList.Splice splice = list.newSplice();
+        for (int i = 0; i < 2000; i += 2) {
+            list.put(bytes(String.format("%04d", i)), bytes(String.valueOf(i)), splice);
+        }
+        // keys before, between and equal to those already put, with the same splice.
+        for (int i = 1999; i >= 1; i -= 2) {
+            list.put(bytes(String.format("%04d", i)), bytes(String.valueOf(i)), splice);
+        }
+        list.put(bytes("1000"), bytes("x"), splice);
+        list.put(bytes("0000"), bytes("y"), splice);
+
+        Assert.assertEquals(2000, list.size());
+        Assert.assertEquals("x", string(list.get(bytes("1000"))));
+        Assert.assertEquals("y", string(list.get(bytes("0000"))));
+        ArenaSkipList.Cursor cursor = list.cursor();
+        int expect = 0;
+        for (cursor.seekToFirst(); cursor.valid(); cursor.next()) {
+            Assert.assertEquals(String.format("%04d", expect++), string(cursor.key().toBytes()));
+        }
+        Assert.assertEquals(2000, expect);
+    }
+
+    @Test
+    public void testConcurrentPutWithSplice() throws InterruptedException {
+        ArenaSkipList list = new ArenaSkipList(new Arena(32 << 20));
+        int threads = 4;
+        int perThread = 10000;
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t;
+            Thread writer = new Thread(() -> {
+                ArenaSkipList.Splice splice = list.newSplice();
+                for (int i = 0; i < perThread; i++) {
+                    byte[] key = bytes(String.format("key%08d", i * threads + base));
+                    list.put(key, key, splice);
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        Assert.assertEquals(threads * perThread, list.size());
+        ArenaSkipList.Cursor cursor = list.cursor();
+        int expect = 0;
+        for (cursor.seekToFirst(); cursor.valid(); cursor.next()) {
+            Assert.assertEquals(String.format("key%08d", expect++), string(cursor.key().toBytes()));
+        }
+        Assert.assertEquals(threads * perThread, expect);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSpliceOfAnotherList() {
+        ArenaSkipList list = new ArenaSkipList(new Arena(1 << 16));
+        ArenaSkipList other = new ArenaSkipList(new Arena(1 << 16));
+        list.put(bytes("a"), bytes("1"), other.newSplice());
+    }
+}
@@ -0,0 +1,133 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The unit test of arena
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class ArenaTest {
+
+    @Test
+    public void testPutAndGetOffHeap() {
+        try (Arena arena = new Arena(128, false, true)) {
+            Assert.assertTrue(arena.isOffHeap());
+            int first = arena.putBytes(new byte[]{1, 2, 3});
+            int second = arena.putBytes(new byte[]{4, 5});
+            int aligned = arena.allocateAligned(8);
+            arena.putLong(aligned, Long.MIN_VALUE + 7);
+
+            Assert.assertArrayEquals(new byte[]{1, 2, 3}, arena.getBytes(first, 3));
+            Assert.assertArrayEquals(new byte[]{4, 5}, arena.getBytes(second, 2));
+            Assert.assertEquals(0, aligned & 7);
+            Assert.assertEquals(Long.MIN_VALUE + 7, arena.getLong(aligned));
+            Assert.assertTrue(arena.casInt(aligned, (int) (Long.MIN_VALUE + 7), 9));
+            Assert.assertEquals(9, arena.getInt(aligned));
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testAllocateFailed() {
+        try (Arena arena = new Arena(16, false, true)) {
+            arena.allocate(17);
+        }
+    }
+
+    @Test
+    public void testGrowKeepsData() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            try (Arena arena = new Arena(64, true, offHeap)) {
+                int[] offsets = new int[100];
+                for (int i = 0; i < offsets.length; i++) {
+                    offsets[i] = arena.putBytes(new byte[]{(byte) i, (byte) (i + 1)});
+                }
+                for (int i = 0; i < offsets.length; i++) {
+                    Assert.assertArrayEquals(new byte[]{(byte) i, (byte) (i + 1)}, arena.getBytes(offsets[i], 2));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLargeAllocationAndStableOffsets() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            try (Arena arena = new Arena(1 << 16, true, offHeap)) {
+                int small = arena.putBytes(new byte[]{7});
+                byte[] large = new byte[(1 << 16) * 3 + 5];
+                large[0] = 1;
+                large[large.length - 1] = 2;
+                int big = arena.putBytes(large);
+                int after = arena.putBytes(new byte[]{8});
+
+                Assert.assertEquals(0, big & ((1 << 16) - 1));
+                Assert.assertArrayEquals(large, arena.getBytes(big, large.length));
+                Assert.assertArrayEquals(new byte[]{7}, arena.getBytes(small, 1));
+                Assert.assertArrayEquals(new byte[]{8}, arena.getBytes(after, 1));
+                Assert.assertTrue(after > big);
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyAllocationAtChunkBoundary() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            try (Arena arena = new Arena(1 << 16, true, offHeap)) {
+                arena.putBytes(new byte[1 << 16]);
+                int empty = arena.putBytes(new byte[0]);
+                byte[] large = new byte[3 << 16];
+                large[0] = 1;
+                large[large.length - 1] = 2;
+                int big = arena.putBytes(large);
+
+                Assert.assertEquals(0, arena.getBytes(empty, 0).length);
+                Assert.assertEquals(0, arena.getSlice(empty, 0, new Slice()).length());
+                Assert.assertArrayEquals(large, arena.getBytes(big, large.length));
+                Assert.assertEquals(4 << 16, arena.usage());
+            }
+        }
+    }
+
+    @Test
+    public void testSlabAllocation() throws InterruptedException {
+        try (Arena arena = new Arena(1 << 16, true, false, 1024)) {
+            int threads = 4;
+            int perThread = 5000;
+            int[][] offsets = new int[threads][perThread];
+            Thread[] writers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                writers[t] = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        offsets[id][i] = arena.putBytes(new byte[]{(byte) id, (byte) i});
+                    }
+                });
+                writers[t].start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            for (int t = 0; t < threads; t++) {
+                for (int i = 0; i < perThread; i++) {
+                    Assert.assertArrayEquals(new byte[]{(byte) t, (byte) i}, arena.getBytes(offsets[t][i], 2));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSlabOfFixedArena() {
+        Arena arena = new Arena(100, false, false, 64);
+        for (int i = 0; i < 25; i++) {
+            arena.allocate(4);
+        }
+        try {
+            arena.allocate(4);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertEquals("arena allocate failed!", e.getMessage());
+        }
+    }
+}
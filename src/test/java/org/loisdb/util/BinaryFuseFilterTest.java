@@ -0,0 +1,87 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The unit test of binary fuse filter
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class BinaryFuseFilterTest {
+
+    private static long hash(String s) {
+        return XxHash64.hash(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFalsePositiveAndSize() {
+        int n = 1000000;
+        long[] hashes = new long[n];
+        for (int i = 0; i < n; i++) {
+            hashes[i] = hash("key" + i);
+        }
+        BinaryFuseFilter filter = BinaryFuseFilter.build(hashes);
+        for (int i = 0; i < n; i++) {
+            Assert.assertTrue(filter.mayContainsHash(hashes[i]));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < n; i++) {
+            if (filter.mayContainsHash(hash("absent" + i))) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue("false positives " + falsePositives, falsePositives < n * 0.005);
+        Assert.assertTrue("bits per key", filter.sizeInBytes() * 8.0 / n < 9.2);
+    }
+
+    @Test
+    public void testSmallSets() {
+        for (int n = 0; n < 100; n++) {
+            long[] hashes = new long[n];
+            for (int i = 0; i < n; i++) {
+                hashes[i] = hash("key" + i);
+            }
+            BinaryFuseFilter filter = BinaryFuseFilter.build(hashes);
+            for (int i = 0; i < n; i++) {
+                Assert.assertTrue(filter.mayContainsKey(new Slice(("key" + i).getBytes(StandardCharsets.UTF_8))));
+            }
+        }
+    }
+
+    @Test
+    public void testDuplicates() {
+        long[] hashes = new long[1000];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = hash("key" + i % 10);
+        }
+        BinaryFuseFilter filter = BinaryFuseFilter.build(hashes, 500);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(filter.mayContainsHash(hash("key" + i)));
+        }
+    }
+
+    @Test
+    public void testSerialize() {
+        long[] hashes = new long[10000];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = hash("key" + i);
+        }
+        BinaryFuseFilter filter = BinaryFuseFilter.build(hashes);
+        BinaryFuseFilter restored = BinaryFuseFilter.fromBytes(filter.toBytes());
+        Assert.assertArrayEquals(filter.toBytes(), restored.toBytes());
+        for (int i = 0; i < hashes.length; i++) {
+            Assert.assertTrue(restored.mayContainsHash(hashes[i]));
+            Assert.assertEquals(filter.mayContainsHash(hash("absent" + i)),
+                    restored.mayContainsHash(hash("absent" + i)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromBadBytes() {
+        BinaryFuseFilter.fromBytes(new byte[20]);
+    }
+}
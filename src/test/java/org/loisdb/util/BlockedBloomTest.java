@@ -0,0 +1,90 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The unit test of blocked bloom filter
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class BlockedBloomTest {
+
+    private static Slice slice(String s) {
+        return new Slice(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNoFalseNegative() {
+        BlockedBloom bloom = new BlockedBloom(0.01, 10000);
+        for (int i = 0; i < 10000; i++) {
+            bloom.insert(i * 31);
+            bloom.insert(slice("key" + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(bloom.mayContainsKey(i * 31));
+            Assert.assertTrue(bloom.mayContainsKey(slice("key" + i)));
+        }
+    }
+
+    @Test
+    public void testFalsePositive() {
+        int n = 100000;
+        BlockedBloom bloom = new BlockedBloom(0.01, n);
+        for (int i = 0; i < n; i++) {
+            bloom.insert(slice("key" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < n; i++) {
+            if (bloom.mayContainsKey(slice("absent" + i))) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue("false positives " + falsePositives, falsePositives < n * 0.015);
+    }
+
+    @Test
+    public void testLooseFalsePositive() {
+        int n = 100000;
+        for (double fp : new double[]{0.3, 0.2, 0.1}) {
+            BlockedBloom bloom = new BlockedBloom(fp, n);
+            Assert.assertTrue(bloom.numProbes() < 8);
+            for (int i = 0; i < n; i++) {
+                bloom.insert(slice("key" + i));
+            }
+            int falsePositives = 0;
+            for (int i = 0; i < n; i++) {
+                Assert.assertTrue(bloom.mayContainsKey(slice("key" + i)));
+                if (bloom.mayContainsKey(slice("absent" + i))) {
+                    falsePositives++;
+                }
+            }
+            Assert.assertTrue("fp " + fp + ", false positives " + falsePositives, falsePositives < n * fp * 1.1);
+        }
+    }
+
+    @Test
+    public void testSerialize() {
+        BlockedBloom bloom = new BlockedBloom(0.01, 1000);
+        for (int i = 0; i < 1000; i++) {
+            bloom.insert(slice("key" + i));
+        }
+        BlockedBloom restored = BlockedBloom.fromBytes(bloom.toBytes());
+        Assert.assertEquals(bloom.sizeInBytes(), restored.sizeInBytes());
+        Assert.assertEquals(bloom.numProbes(), restored.numProbes());
+        Assert.assertEquals(0, restored.sizeInBytes() % 64);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(restored.mayContainsKey(slice("key" + i)));
+            Assert.assertEquals(bloom.mayContainsKey(slice("absent" + i)),
+                    restored.mayContainsKey(slice("absent" + i)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromBadBytes() {
+        BlockedBloom.fromBytes(new byte[63]);
+    }
+}
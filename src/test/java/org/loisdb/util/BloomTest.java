@@ -3,6 +3,8 @@ package org.loisdb.util;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.BitSet;
+
 public class BloomTest {
 
     @Test
@@ -34,4 +36,70 @@ public class BloomTest {
         Assert.assertFalse(bloom.mayContainsKey(999));
         Assert.assertFalse(bloom.mayContainsKey(988));
     }
+
+    @Test
+    public void testSerialize() {
+        Bloom bloom = new Bloom(0.01, 1000);
+        for (int i = 0; i < 1000; i++) {
+            bloom.insert(new Slice(("key" + i).getBytes()));
+        }
+        Bloom restored = Bloom.fromBytes(bloom.toBytes());
+        Assert.assertArrayEquals(bloom.toBytes(), restored.toBytes());
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(restored.mayContainsKey(new Slice(("key" + i).getBytes())));
+            if (restored.mayContainsKey(new Slice(("absent" + i).getBytes()))) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue(falsePositives < 50);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromBadBytes() {
+        Bloom.fromBytes(new byte[]{1, 2, 3, 0});
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        int n = 100000;
+        for (double fp : new double[]{0.1, 0.01, 0.001}) {
+            Bloom bloom = new Bloom(fp, n);
+            for (int i = 0; i < n; i++) {
+                bloom.insert(("key" + i).getBytes());
+            }
+            int falsePositives = 0;
+            for (int i = 0; i < n; i++) {
+                Assert.assertTrue(bloom.mayContainsKey(("key" + i).getBytes()));
+                if (bloom.mayContainsKey(("absent" + i).getBytes())) {
+                    falsePositives++;
+                }
+            }
+            double rate = (double) falsePositives / n;
+            Assert.assertTrue("fp " + fp + ", measured " + rate, rate < fp * 1.2);
+        }
+    }
+
+    @Test
+    public void testMayContainKeys() {
+        Bloom bloom = new Bloom(0.01, 1000);
+        for (int i = 0; i < 1000; i++) {
+            bloom.insert(("key" + i).getBytes());
+        }
+        byte[][] keys = new byte[1000][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (i % 3 == 0 ? "key" + i : "absent" + i).getBytes();
+        }
+        BitSet results = new BitSet();
+        results.set(5000);
+        bloom.mayContainKeys(keys, results);
+        for (int i = 0; i < keys.length; i++) {
+            Assert.assertEquals(bloom.mayContainsKey(keys[i]), results.get(i));
+        }
+        Assert.assertFalse(results.get(5000));
+        Assert.assertTrue(results.cardinality() >= 334);
+
+        bloom.mayContainKeys(new byte[0][], results);
+        Assert.assertTrue(results.isEmpty());
+    }
 }
@@ -0,0 +1,55 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The unit test of bytewise comparator
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class BytewiseComparatorTest {
+
+    private static int naiveCompare(byte[] a, byte[] b) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            int cmp = (a[i] & 0xff) - (b[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    @Test
+    public void testSameAsByteByByte() {
+        Random random = new Random(7);
+        for (int n = 0; n < 100000; n++) {
+            byte[] a = new byte[random.nextInt(20)];
+            random.nextBytes(a);
+            byte[] b = a.clone();
+            if (b.length > 0 && random.nextBoolean()) {
+                b[random.nextInt(b.length)] = (byte) random.nextInt();
+            }
+            if (random.nextBoolean()) {
+                b = Arrays.copyOf(b, random.nextInt(20));
+            }
+            int expect = Integer.signum(naiveCompare(a, b));
+            Assert.assertEquals(expect,
+                    Integer.signum(BytewiseComparator.INSTANCE.compare(new Slice(a), new Slice(b))));
+        }
+    }
+
+    @Test
+    public void testWordBoundary() {
+        byte[] a = {1, 2, 3, 4, 5, 6, 7, 8, (byte) 0xff};
+        byte[] b = {1, 2, 3, 4, 5, 6, 7, 9, 0};
+        Assert.assertTrue(BytewiseComparator.INSTANCE.compare(new Slice(a), new Slice(b)) < 0);
+        b[7] = 8;
+        Assert.assertTrue(BytewiseComparator.INSTANCE.compare(new Slice(a), new Slice(b)) > 0);
+        Assert.assertTrue(BytewiseComparator.INSTANCE.compare(new Slice().set(a, 0, 8), new Slice(a)) < 0);
+    }
+}
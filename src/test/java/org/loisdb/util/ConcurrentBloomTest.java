@@ -0,0 +1,71 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The unit test of concurrent bloom filter
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class ConcurrentBloomTest {
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testConcurrentInsert() throws InterruptedException {
+        int threads = 8;
+        int perThread = 50000;
+        // a small filter, so writers keep racing on the same words.
+        ConcurrentBloom bloom = new ConcurrentBloom(threads * perThread * 10, 6);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    bloom.insert(bytes(id + "-" + i));
+                }
+            }));
+        }
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        // readers may query while writers insert.
+        int ruledOut = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (!bloom.mayContainsKey(new Slice(bytes("absent" + i)))) {
+                ruledOut++;
+            }
+        }
+        Assert.assertTrue(ruledOut > 0);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                Assert.assertTrue(bloom.mayContainsKey(new Slice(bytes(t + "-" + i))));
+            }
+        }
+    }
+
+    @Test
+    public void testToBloom() {
+        ConcurrentBloom bloom = new ConcurrentBloom(10000, 6);
+        for (int i = 0; i < 1000; i++) {
+            bloom.insert(bytes("key" + i));
+        }
+        Bloom restored = Bloom.fromBytes(bloom.toBytes());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(restored.mayContainsKey(bytes("key" + i)));
+            Assert.assertEquals(bloom.mayContainsKey(new Slice(bytes("absent" + i))),
+                    restored.mayContainsKey(bytes("absent" + i)));
+        }
+    }
+}
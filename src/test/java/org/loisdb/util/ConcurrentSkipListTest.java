@@ -0,0 +1,129 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * The unit test of concurrent skip list
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class ConcurrentSkipListTest {
+
+    @Test
+    public void testInsertAndFind() {
+        ConcurrentSkipList<String> list = new ConcurrentSkipList<>();
+        Assert.assertTrue(list.add("b", 2));
+        Assert.assertTrue(list.add("a", 1));
+        Assert.assertTrue(list.add("c", 2));
+        Assert.assertFalse(list.add("b", 2));
+
+        Assert.assertEquals(3, list.size());
+        Assert.assertEquals("b", list.findVal("b", 2));
+        Assert.assertEquals("c", list.findVal("c", 2));
+        Assert.assertNull(list.findVal("c", 3));
+        Assert.assertEquals("a", list.iterator().next());
+    }
+
+    @Test
+    public void testRemoveAndRevive() {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        Assert.assertTrue(list.remove(Integer.valueOf(50)));
+        Assert.assertFalse(list.remove(Integer.valueOf(50)));
+        Assert.assertFalse(list.contains(50));
+        Assert.assertEquals(99, list.size());
+
+        Assert.assertTrue(list.add(50));
+        Assert.assertTrue(list.contains(50));
+        Assert.assertEquals(100, list.size());
+
+        Iterator<Integer> itr = list.iterator();
+        while (itr.hasNext()) {
+            if (itr.next() % 2 == 0) {
+                itr.remove();
+            }
+        }
+        Assert.assertEquals(50, list.size());
+        for (Integer i : list) {
+            Assert.assertEquals(1, i % 2);
+        }
+    }
+
+    @Test
+    public void testAddAll() {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<>();
+        for (int i = 0; i < 1000; i += 2) {
+            list.add(i, i);
+        }
+        list.remove(10, 10);
+        Integer[] vals = new Integer[1001];
+        int[] scores = new int[vals.length];
+        for (int i = 0; i < 1000; i++) {
+            vals[i] = (i * 7919) % 1000;
+            scores[i] = vals[i];
+        }
+        // a value twice in the same batch is only added once.
+        vals[1000] = 1;
+        scores[1000] = 1;
+
+        Assert.assertTrue(list.addAll(vals, scores));
+        Assert.assertFalse(list.addAll(vals, scores));
+        Assert.assertEquals(1000, list.size());
+        int expect = 0;
+        for (Integer i : list) {
+            Assert.assertEquals(expect++, i.intValue());
+        }
+        Assert.assertEquals(1000, expect);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddAllMismatch() {
+        new ConcurrentSkipList<Integer>().addAll(new Integer[]{1, 2}, new int[]{1});
+    }
+
+    @Test
+    public void testConcurrentInsert() throws InterruptedException {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<>();
+        int threads = 8;
+        int perThread = 20000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t;
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    list.add(i * threads + base);
+                    // every value is also added by the neighbour thread, only one of them may win.
+                    list.add(i * threads + (base + 1) % threads);
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        Assert.assertEquals(threads * perThread, list.size());
+        int expect = 0;
+        for (Integer i : list) {
+            Assert.assertEquals(expect++, i.intValue());
+        }
+        Assert.assertEquals(threads * perThread, expect);
+    }
+}
@@ -0,0 +1,49 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The unit test of level generator
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class LevelGeneratorTest {
+
+    private static void assertDistribution(double probability) {
+        int maxLevel = 12;
+        LevelGenerator generator = new LevelGenerator(maxLevel, probability);
+        int draws = 1000000;
+        int[] counts = new int[maxLevel + 1];
+        for (int i = 0; i < draws; i++) {
+            int level = generator.nextLevel();
+            Assert.assertTrue(level >= 1 && level <= maxLevel);
+            counts[level]++;
+        }
+        // a tower reaches level 2 with probability p and level 3 with probability p^2.
+        int atLeast2 = draws - counts[1];
+        int atLeast3 = atLeast2 - counts[2];
+        Assert.assertEquals(probability, atLeast2 / (double) draws, 0.01);
+        Assert.assertEquals(probability * probability, atLeast3 / (double) draws, 0.01);
+    }
+
+    @Test
+    public void testPowerOfTwoProbability() {
+        assertDistribution(0.5);
+        assertDistribution(0.25);
+    }
+
+    @Test
+    public void testOtherProbability() {
+        assertDistribution(1 / Math.E);
+    }
+
+    @Test
+    public void testMaxLevel() {
+        LevelGenerator generator = new LevelGenerator(1, 0.5);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(1, generator.nextLevel());
+        }
+    }
+}
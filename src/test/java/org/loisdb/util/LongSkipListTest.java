@@ -0,0 +1,75 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The unit test of long skip list
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class LongSkipListTest {
+
+    @Test
+    public void testAddFindRemove() {
+        LongSkipList<String> list = new LongSkipList<>();
+        Assert.assertTrue(list.add(3L, "c"));
+        Assert.assertTrue(list.add(Long.MIN_VALUE, "min"));
+        Assert.assertTrue(list.add(Long.MAX_VALUE, "max"));
+        Assert.assertTrue(list.add(-1L, "a"));
+        Assert.assertFalse(list.add(3L, "cc"));
+
+        Assert.assertEquals(4, list.size());
+        Assert.assertEquals("cc", list.find(3L));
+        Assert.assertEquals("min", list.find(Long.MIN_VALUE));
+        Assert.assertNull(list.find(4L));
+        Assert.assertTrue(list.remove(-1L));
+        Assert.assertFalse(list.remove(-1L));
+        Assert.assertFalse(list.contains(-1L));
+        Assert.assertEquals(3, list.size());
+
+        LongSkipList<String>.Cursor cursor = list.cursor();
+        cursor.seekToFirst();
+        Assert.assertEquals(Long.MIN_VALUE, cursor.key());
+        cursor.next();
+        Assert.assertEquals("cc", cursor.value());
+        cursor.seek(4L);
+        Assert.assertEquals(Long.MAX_VALUE, cursor.key());
+        cursor.next();
+        Assert.assertFalse(cursor.valid());
+    }
+
+    @Test
+    public void testRandomAgainstTreeMap() {
+        LongSkipList<Long> list = new LongSkipList<>(12, 0.5);
+        TreeMap<Long, Long> expect = new TreeMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 100000; i++) {
+            long key = random.nextLong(5000);
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expect.remove(key) != null, list.remove(key));
+            } else {
+                Assert.assertEquals(expect.put(key, (long) i) == null, list.add(key, (long) i));
+            }
+        }
+        Assert.assertEquals(expect.size(), list.size());
+
+        LongSkipList<Long>.Cursor cursor = list.cursor();
+        cursor.seekToFirst();
+        for (Map.Entry<Long, Long> entry : expect.entrySet()) {
+            Assert.assertTrue(cursor.valid());
+            Assert.assertEquals(entry.getKey().longValue(), cursor.key());
+            Assert.assertEquals(entry.getValue(), cursor.value());
+            cursor.next();
+        }
+        Assert.assertFalse(cursor.valid());
+        for (long key = 0; key < 5000; key++) {
+            Assert.assertEquals(expect.get(key), list.find(key));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The unit test of prefix extractor
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class PrefixExtractorTest {
+
+    private static Slice slice(String s) {
+        return new Slice(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFixed() {
+        PrefixExtractor extractor = PrefixExtractor.fixed(3);
+        Assert.assertEquals("fixed:3", extractor.name());
+        Assert.assertFalse(extractor.inDomain(slice("ab")));
+        Assert.assertTrue(extractor.inDomain(slice("abc")));
+        Assert.assertEquals(slice("abc"), extractor.prefix(slice("abcdef"), new Slice()));
+    }
+
+    @Test
+    public void testDelimited() {
+        PrefixExtractor extractor = PrefixExtractor.delimited((byte) '|', 2);
+        Assert.assertEquals("delimited:124:2", extractor.name());
+        Assert.assertFalse(extractor.inDomain(slice("tenant|entity")));
+        Assert.assertTrue(extractor.inDomain(slice("tenant|entity|")));
+        Assert.assertEquals(slice("tenant|entity|"), extractor.prefix(slice("tenant|entity|42"), new Slice()));
+        Assert.assertEquals(slice("t||"), extractor.prefix(slice("t||x|y"), new Slice()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfDomain() {
+        PrefixExtractor.delimited((byte) '|', 2).prefix(slice("tenant"), new Slice());
+    }
+
+    @Test
+    public void testHashPrefix() {
+        Slice prefix = slice("tenant|entity|");
+        Assert.assertEquals(XxHash64.hash(prefix, PrefixExtractor.PREFIX_SEED), PrefixExtractor.hashPrefix(prefix));
+        Assert.assertNotEquals(XxHash64.hash(prefix), PrefixExtractor.hashPrefix(prefix));
+    }
+}
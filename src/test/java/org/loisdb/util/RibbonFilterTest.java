@@ -0,0 +1,96 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The unit test of ribbon filter
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class RibbonFilterTest {
+
+    private static long hash(String s) {
+        return XxHash64.hash(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFalsePositiveAndSize() {
+        int n = 1000000;
+        RibbonFilter.Builder builder = new RibbonFilter.Builder(0.01, n);
+        for (int i = 0; i < n; i++) {
+            builder.add(hash("key" + i));
+        }
+        RibbonFilter filter = builder.build();
+        for (int i = 0; i < n; i++) {
+            Assert.assertTrue(filter.mayContainsHash(hash("key" + i)));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < n; i++) {
+            if (filter.mayContainsHash(hash("absent" + i))) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue("false positives " + falsePositives, falsePositives < n * 0.01);
+        Assert.assertTrue("bumped " + filter.bumpedCount(), filter.bumpedCount() < n / 1000);
+
+        Bloom bloom = new Bloom(0.01, n);
+        int bloomSize = bloom.toBytes().length;
+        Assert.assertTrue("ribbon " + filter.sizeInBytes() + ", bloom " + bloomSize,
+                filter.sizeInBytes() < bloomSize * 0.8);
+    }
+
+    @Test
+    public void testMoreKeysThanExpected() {
+        RibbonFilter.Builder builder = new RibbonFilter.Builder(0.01, 1000);
+        for (int i = 0; i < 2000; i++) {
+            builder.add(hash("key" + i));
+        }
+        RibbonFilter filter = builder.build();
+        Assert.assertTrue(filter.bumpedCount() > 0);
+        for (int i = 0; i < 2000; i++) {
+            Assert.assertTrue(filter.mayContainsHash(hash("key" + i)));
+        }
+    }
+
+    @Test
+    public void testSmallSetsAndDuplicates() {
+        for (int n = 0; n < 100; n++) {
+            long[] hashes = new long[n * 2];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = hash("key" + i % Math.max(n, 1));
+            }
+            RibbonFilter filter = RibbonFilter.build(hashes, hashes.length, 0.001);
+            Assert.assertEquals(0, filter.bumpedCount());
+            for (long h : hashes) {
+                Assert.assertTrue(filter.mayContainsHash(h));
+            }
+        }
+    }
+
+    @Test
+    public void testSerialize() {
+        long[] hashes = new long[10000];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = hash("key" + i);
+        }
+        RibbonFilter filter = RibbonFilter.build(hashes, hashes.length, 0.01);
+        RibbonFilter restored = RibbonFilter.fromBytes(filter.toBytes());
+        Assert.assertArrayEquals(filter.toBytes(), restored.toBytes());
+        for (int i = 0; i < hashes.length; i++) {
+            Assert.assertTrue(restored.mayContainsHash(hashes[i]));
+            Assert.assertEquals(filter.mayContainsHash(hash("absent" + i)),
+                    restored.mayContainsHash(hash("absent" + i)));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAddAfterBuild() {
+        RibbonFilter.Builder builder = new RibbonFilter.Builder(0.01, 10);
+        builder.build();
+        builder.add(1);
+    }
+}
@@ -1,7 +1,10 @@
 package org.loisdb.util;
 
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Iterator;
+
 /**
  * The unit test of skip list
  *
@@ -12,9 +15,108 @@ public class SimpleSkipListTest {
 
     @Test
     public void testInsert() {
+        SimpleSkipList<Integer> list = new SimpleSkipList<>(8, 0.5);
+        for (int i = 0; i < 10000; i++) {
+            int score = i * 0x9E3779B9;
+            list.add(score, score);
+        }
+        Assert.assertEquals(10000, list.size());
+        Assert.assertTrue(list.height() <= 8);
+        Assert.assertTrue(list.height() > 1);
+
+        Integer last = null;
+        for (Integer i : list) {
+            Assert.assertTrue(last == null || last < i);
+            last = i;
+        }
+        for (int i = 0; i < 10000; i++) {
+            int score = i * 0x9E3779B9;
+            Assert.assertEquals(Integer.valueOf(score), list.findVal(score, score));
+        }
+    }
+
+    @Test
+    public void testInitialLevel() {
+        SimpleSkipList<Integer> list = new SimpleSkipList<>(4);
+        Assert.assertEquals(4, list.height());
+        for (int i = 0; i < 100000; i++) {
+            list.add(i, i);
+        }
+        // the initial level does not cap towers.
+        Assert.assertTrue(list.height() > 4);
+        for (int i = 0; i < 100000; i += 97) {
+            Assert.assertEquals(Integer.valueOf(i), list.findVal(i, i));
+        }
+    }
+
+    @Test
+    public void testAddAll() {
+        SimpleSkipList<Integer> list = new SimpleSkipList<>();
+        for (int i = 0; i < 1000; i += 2) {
+            list.add(i, i);
+        }
+        Integer[] vals = new Integer[500];
+        int[] scores = new int[vals.length];
+        for (int i = 0; i < vals.length; i++) {
+            // odd numbers below 1000 in an order which looks random.
+            vals[i] = (i * 7919) % 500 * 2 + 1;
+            scores[i] = vals[i];
+        }
+        Assert.assertTrue(list.addAll(vals, scores));
+        Assert.assertFalse(list.addAll(new Integer[0], new int[0]));
+
+        Assert.assertEquals(1000, list.size());
+        int expect = 0;
+        for (Integer i : list) {
+            Assert.assertEquals(expect++, i.intValue());
+        }
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(Integer.valueOf(i), list.findVal(i, i));
+        }
     }
 
     @Test
     public void testInsertAndRemove() {
+        SimpleSkipList<Integer> list = new SimpleSkipList<>();
+        Assert.assertEquals(1, list.height());
+        for (int i = 0; i < 1000; i++) {
+            list.add(i, i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            Assert.assertTrue(list.remove(i, i));
+        }
+        Assert.assertFalse(list.remove(0, 0));
+        Assert.assertEquals(500, list.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i % 2 != 0, list.contains(i));
+        }
+        int expect = 1;
+        for (Integer i : list) {
+            Assert.assertEquals(expect, i.intValue());
+            expect += 2;
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitialLevelAboveMax() {
+        new SimpleSkipList<Integer>(SimpleSkipList.DEFAULT_MAX_LEVEL + 1);
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        SimpleSkipList<Integer> list = new SimpleSkipList<>();
+        for (int i = 0; i < 10; i++) {
+            list.add(i, i);
+        }
+        Iterator<Integer> itr = list.iterator();
+        while (itr.hasNext()) {
+            if (itr.next() % 3 == 0) {
+                itr.remove();
+            }
+        }
+        Assert.assertEquals(6, list.size());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(i % 3 != 0, list.contains(i));
+        }
     }
 }
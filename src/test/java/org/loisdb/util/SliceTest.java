@@ -0,0 +1,46 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * The unit test of slice
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class SliceTest {
+
+    @Test
+    public void testCompare() {
+        Assert.assertTrue(new Slice(new byte[]{1, 2}).compareTo(new Slice(new byte[]{1, 3})) < 0);
+        Assert.assertTrue(new Slice(new byte[]{(byte) 0x80}).compareTo(new Slice(new byte[]{0x7f})) > 0);
+        Assert.assertTrue(new Slice(new byte[]{1}).compareTo(new Slice(new byte[]{1, 0})) < 0);
+        Assert.assertEquals(0, new Slice().compareTo(new Slice(new byte[0])));
+        Assert.assertEquals(new Slice().set(new byte[]{9, 1, 2, 9}, 1, 2), new Slice(new byte[]{1, 2}));
+    }
+
+    @Test
+    public void testViewOfOffHeapArena() throws IOException {
+        try (Arena arena = new Arena(1 << 16, false, true)) {
+            byte[] bytes = new byte[10000];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) i;
+            }
+            int offset = arena.putBytes(bytes);
+            Slice slice = arena.getSlice(offset, bytes.length, new Slice());
+
+            Assert.assertEquals(bytes.length, slice.length());
+            Assert.assertEquals((byte) 9999, slice.getByte(9999));
+            Assert.assertArrayEquals(bytes, slice.toBytes());
+            Assert.assertEquals(new Slice(bytes).hashCode(), slice.hashCode());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            slice.writeTo(out);
+            Assert.assertArrayEquals(bytes, out.toByteArray());
+        }
+    }
+}
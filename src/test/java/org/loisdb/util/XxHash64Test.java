@@ -0,0 +1,50 @@
+package org.loisdb.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The unit test of xxHash64
+ *
+ * @author zhanglongxiang
+ * @since 2026/10/17
+ */
+public class XxHash64Test {
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testKnownHashes() {
+        Assert.assertEquals(0xef46db3751d8e999L, XxHash64.hash(new byte[0]));
+        Assert.assertEquals(0xd24ec4f1a98c6e5bL, XxHash64.hash(bytes("a")));
+        Assert.assertEquals(0x44bc2cf5ad770999L, XxHash64.hash(bytes("abc")));
+        Assert.assertEquals(0x066ed728fceeb3beL, XxHash64.hash(bytes("message digest")));
+        Assert.assertEquals(0x64f23ecf1609b766L, XxHash64.hash(bytes("abcdefghijklmnopqrstuvwxyz0123456789")));
+        byte[] hundred = new byte[100];
+        for (int i = 0; i < hundred.length; i++) {
+            hundred[i] = (byte) i;
+        }
+        Assert.assertEquals(0x6ac1e58032166597L, XxHash64.hash(hundred));
+        Assert.assertEquals(0x2ed0f59d6b43ac8bL, XxHash64.hash(bytes("abc"), 0, 3, 0x9e3779b97f4a7c15L));
+    }
+
+    @Test
+    public void testSliceAndOffset() {
+        byte[] bytes = bytes("xxabcdefghijklmnopqrstuvwxyz0123456789yy");
+        long expected = XxHash64.hash(bytes("abcdefghijklmnopqrstuvwxyz0123456789"));
+        Assert.assertEquals(expected, XxHash64.hash(bytes, 2, 36, 0));
+        Assert.assertEquals(expected, XxHash64.hash(new Slice().set(bytes, 2, 36)));
+
+        try (Arena arena = new Arena(4096, true, true)) {
+            ArenaSkipList list = new ArenaSkipList(arena, BytewiseComparator.INSTANCE);
+            list.put(bytes("abcdefghijklmnopqrstuvwxyz0123456789"), bytes("v"));
+            ArenaSkipList.Cursor cursor = list.cursor();
+            cursor.seekToFirst();
+            Assert.assertEquals(expected, XxHash64.hash(cursor.key()));
+        }
+    }
+}